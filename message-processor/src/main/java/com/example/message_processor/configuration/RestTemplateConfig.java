@@ -1,14 +1,159 @@
 package com.example.message_processor.configuration;
 
+import com.example.message_processor.utils.RequestDeadline;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP transport behind {@link com.example.message_processor.utils.RestClient}.
+ * <p>
+ * - APACHE (default): pooled HttpClient 5 with per-route limits, bounded pool
+ *   leases, keep-alive and idle eviction; response timeouts are capped by the
+ *   current {@link RequestDeadline}
+ * - JDK: {@link HttpClient} with optional HTTP/2 (multiplexed, one connection per
+ *   host); the deadline is checked before each call only
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    public enum Transport {
+        APACHE,
+        JDK
+    }
+
+    @Value("${processor.http.transport:APACHE}")
+    private Transport transport;
+
+    @Value("${processor.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${processor.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${processor.http.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    // How long a call may wait for a free pooled connection
+    @Value("${processor.http.connection-request-timeout:PT2S}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${processor.http.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    @Value("${processor.http.keep-alive:PT30S}")
+    private Duration keepAlive;
+
+    @Value("${processor.http.http2-enabled:false}")
+    private boolean http2Enabled;
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory() {
+        return transport == Transport.JDK
+                ? jdkRequestFactory()
+                : apacheRequestFactory();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
+        RestTemplate restTemplate = new RestTemplate(clientHttpRequestFactory);
+        restTemplate.getInterceptors().add(deadlineInterceptor());
+        return restTemplate;
+    }
+
+    /* =========================
+       TRANSPORTS
+       ========================= */
+
+    private HttpComponentsClientHttpRequestFactory apacheRequestFactory() {
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(
+                        ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(connectTimeout))
+                                .setSocketTimeout(Timeout.of(readTimeout))
+                                .setTimeToLive(TimeValue.of(keepAlive))
+                                .build()
+                )
+                .build();
+
+        RequestConfig defaultRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build();
+
+        var httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+
+        var factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+        // Per-call response timeout: whatever is left of the deadline, at most read-timeout
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            RequestDeadline.remaining()
+                    .filter(remaining -> remaining.compareTo(readTimeout) < 0)
+                    .ifPresent(remaining -> context.setRequestConfig(
+                            RequestConfig.copy(defaultRequestConfig)
+                                    .setResponseTimeout(Timeout.ofMilliseconds(Math.max(1, remaining.toMillis())))
+                                    .build()
+                    ));
+            return context;
+        });
+
+        return factory;
+    }
+
+    private JdkClientHttpRequestFactory jdkRequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(http2Enabled ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+
+        var factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    /* =========================
+       DEADLINE PROPAGATION
+       ========================= */
+
+    private ClientHttpRequestInterceptor deadlineInterceptor() {
+        return (request, body, execution) -> {
+            RequestDeadline.current().ifPresent(deadline -> {
+                if (!RequestDeadline.remaining().orElseThrow().isPositive()) {
+                    throw new ResourceAccessException(
+                            "Deadline exceeded before calling " + request.getURI()
+                    );
+                }
+                request.getHeaders().set(
+                        RequestDeadline.HEADER,
+                        String.valueOf(deadline.toEpochMilli())
+                );
+            });
+            return execution.execute(request, body);
+        };
     }
 }
@@ -1,13 +1,17 @@
 package com.example.message_processor.services;
 
+import com.example.message_processor.utils.EventCodec;
+import com.example.message_processor.utils.RequestDeadline;
 import com.example.message_processor.utils.RestClient;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -23,16 +27,20 @@ public class OrderQueueListener {
     private static final String CHANNEL_IN_APP = "IN_APP";
 
     private final RestClient restClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventCodec eventCodec;
+
+    // Upper bound for one notification call, including waiting for a pooled connection
+    @Value("${processor.http.notification-deadline:PT3S}")
+    private Duration notificationDeadline;
 
     /* =========================================================
        ORDER STATUS EVENTS
        ========================================================= */
 
     @RabbitListener(queues = "order.status.queue")
-    public void handleOrderStatusEvents(String json) {
+    public void handleOrderStatusEvents(Message message) {
         try {
-            JsonNode event = objectMapper.readTree(json);
+            JsonNode event = eventCodec.decode(message);
 
             String status = event.path("status").asText(null);
             String orderId = event.path("orderId").asText(null);
@@ -41,7 +49,7 @@ public class OrderQueueListener {
             String userId = event.path("userId").asText("user-123");
 
             if (status == null || orderId == null) {
-                log.warn("Invalid ORDER STATUS event payload: {}", json);
+                log.warn("Invalid ORDER STATUS event payload: {}", event);
                 return;
             }
 
@@ -79,7 +87,7 @@ public class OrderQueueListener {
        ========================================================= */
 
     @RabbitListener(queues = "order.analytics.queue")
-    public void handleOrderAnalyticsEvents(String json) {
+    public void handleOrderAnalyticsEvents(Message message) {
         // Analytics are system-facing only
         log.debug("📊 Order analytics event received (ignored for notifications)");
     }
@@ -89,16 +97,16 @@ public class OrderQueueListener {
        ========================================================= */
 
     @RabbitListener(queues = "payment.status.queue")
-    public void handlePaymentStatusEvents(String json) {
+    public void handlePaymentStatusEvents(Message message) {
         try {
-            JsonNode event = objectMapper.readTree(json);
+            JsonNode event = eventCodec.decode(message);
 
             String paymentStatus = event.path("paymentStatus").asText(null);
             String orderId = event.path("orderId").asText(null);
             String userId = event.path("userId").asText("user-123");
 
             if (paymentStatus == null || orderId == null) {
-                log.warn("Invalid PAYMENT STATUS event payload: {}", json);
+                log.warn("Invalid PAYMENT STATUS event payload: {}", event);
                 return;
             }
             switch (paymentStatus) {
@@ -140,12 +148,14 @@ public class OrderQueueListener {
         payload.put("channel", "IN_APP");
         payload.put("referenceId", UUID.fromString(referenceId));
 
-        restClient.post(
-                NOTIFICATION_SERVICE_BASE_URL,
-                "/api/v1/notifications",
-                null,
-                payload,
-                Void.class
+        RequestDeadline.within(notificationDeadline, () ->
+                restClient.post(
+                        NOTIFICATION_SERVICE_BASE_URL,
+                        "/api/v1/notifications",
+                        null,
+                        payload,
+                        Void.class
+                )
         );
 
         log.info(
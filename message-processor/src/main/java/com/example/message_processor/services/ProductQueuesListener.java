@@ -1,14 +1,22 @@
 package com.example.message_processor.services;
 
+import com.example.message_processor.utils.EventCodec;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ProductQueuesListener {
 
+    private final EventCodec eventCodec;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /* =========================================================
@@ -16,8 +24,8 @@ public class ProductQueuesListener {
        ========================================================= */
 
     @RabbitListener(queues = "products.analytics.queue")
-    public void handleAnalyticsEvents(String json) {
-        logEvent("📊 [ANALYTICS]", json);
+    public void handleAnalyticsEvents(Message message) {
+        logEvent("📊 [ANALYTICS]", message);
     }
 
     /* =========================================================
@@ -25,8 +33,8 @@ public class ProductQueuesListener {
        ========================================================= */
 
     @RabbitListener(queues = "products.warehouse.BLRA.queue")
-    public void handleWarehouseEvents(String json) {
-        logEvent("🏭 [WAREHOUSE]", json);
+    public void handleWarehouseEvents(Message message) {
+        logEvent("🏭 [WAREHOUSE]", message);
     }
 
     /* =========================================================
@@ -34,24 +42,29 @@ public class ProductQueuesListener {
        ========================================================= */
 
     @RabbitListener(queues = "products.notification.user.queue")
-    public void handleUserNotificationEvents(String json) {
-        logEvent("🔔 [USER-NOTIFICATION]", json);
+    public void handleUserNotificationEvents(Message message) {
+        logEvent("🔔 [USER-NOTIFICATION]", message);
     }
 
     /* =========================================================
        INTERNAL HELPER
        ========================================================= */
 
-    private void logEvent(String prefix, String json) {
+    private void logEvent(String prefix, Message message) {
         try {
-            Object parsed = objectMapper.readValue(json, Object.class);
+            JsonNode parsed = eventCodec.decode(message);
             String pretty = objectMapper
                     .writerWithDefaultPrettyPrinter()
                     .writeValueAsString(parsed);
 
             log.info("{} Event received:\n{}", prefix, pretty);
         } catch (Exception ex) {
-            log.warn("{} Raw message received (not JSON): {}", prefix, json);
+            log.warn(
+                    "{} Raw message received (undecodable, contentType={}): {}",
+                    prefix,
+                    message.getMessageProperties().getContentType(),
+                    new String(message.getBody(), StandardCharsets.UTF_8)
+            );
         }
     }
 }
@@ -0,0 +1,32 @@
+package com.example.message_processor.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Decodes incoming events based on the AMQP {@code content-type} header.
+ * <p>
+ * {@code application/cbor} is read as CBOR; everything else (application/json,
+ * legacy text/plain, missing header) as JSON. Producers choose the encoding,
+ * so both formats can share a queue while a change rolls out.
+ */
+@Component
+public class EventCodec {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public JsonNode decode(Message message) throws IOException {
+        String contentType = message.getMessageProperties().getContentType();
+        ObjectMapper mapper = CONTENT_TYPE_CBOR.equals(contentType) ? cborMapper : jsonMapper;
+
+        return mapper.readTree(message.getBody());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.message_processor.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the work running on the current thread.
+ * <p>
+ * Outgoing {@link RestClient} calls never wait past it (the response timeout is
+ * capped to the time left) and forward it downstream in the
+ * {@value #HEADER} header as epoch milliseconds.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "Request-Deadline";
+
+    private static final ThreadLocal<Instant> CURRENT = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static Optional<Instant> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Time left before the deadline, or empty when none is set. May be zero or negative.
+     */
+    public static Optional<Duration> remaining() {
+        return current().map(deadline -> Duration.between(Instant.now(), deadline));
+    }
+
+    /**
+     * Runs {@code work} with a deadline of {@code budget} from now, or the current
+     * deadline if that one is earlier.
+     */
+    public static <T> T within(Duration budget, Supplier<T> work) {
+        Instant deadline = Instant.now().plus(budget);
+        Instant previous = CURRENT.get();
+
+        if (previous != null && previous.isBefore(deadline)) {
+            deadline = previous;
+        }
+
+        CURRENT.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.notification_service.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -20,8 +21,9 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class NotificationEntity {
 
+    // UUIDv7 (time-ordered) instead of random v4
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @JdbcTypeCode(SqlTypes.UUID)
     private UUID id;
 
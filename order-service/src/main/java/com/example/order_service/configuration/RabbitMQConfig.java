@@ -1,9 +1,12 @@
 package com.example.order_service.configuration;
 
 import org.springframework.amqp.core.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -20,6 +23,46 @@ public class RabbitMQConfig {
     public static final String PAYMENT_STATUS_TOPIC_EXCHANGE =
             "payment.status.topic.exchange";
 
+    public static final String ORDER_COMMAND_DIRECT_EXCHANGE =
+            "order.command.direct.exchange";
+
+    // Owned by product-service, consumed here for product cache invalidation
+    public static final String PRODUCTS_ANALYTICS_FANOUT_EXCHANGE =
+            "products.analytics.fanout.exchange";
+
+    // Owned by product-service, inventory request/reply and reservation commands
+    public static final String PRODUCTS_INVENTORY_DIRECT_EXCHANGE =
+            "products.inventory.direct.exchange";
+
+    /* =========================================================
+       ROUTING KEY PREFIXES
+       ========================================================= */
+
+    public static final String ORDER_STATUS_ROUTING_KEY_PREFIX =
+            "order.status.";
+
+    public static final String PAYMENT_STATUS_ROUTING_KEY_PREFIX =
+            "payment.status.";
+
+    public static final String ORDER_COMMAND_CREATE_ROUTING_KEY =
+            "order.command.create";
+
+    public static final String PRODUCTS_INVENTORY_REDUCE_ROUTING_KEY =
+            "products.inventory.reduce";
+
+    public static final String PRODUCTS_INVENTORY_RESERVE_ROUTING_KEY =
+            "products.inventory.reserve";
+
+    public static final String PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY =
+            "products.inventory.reservation.commit";
+
+    public static final String PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY =
+            "products.inventory.reservation.release";
+
+    // Reply from product-service: a paid order's stock could not be committed
+    public static final String PRODUCTS_INVENTORY_COMMIT_FAILED_ROUTING_KEY =
+            "products.inventory.reservation.commit.failed";
+
     /* =========================================================
        QUEUE NAMES (FOR DEMO / LOCAL / MOCK PURPOSES)
        ========================================================= */
@@ -34,6 +77,26 @@ public class RabbitMQConfig {
     public static final String PAYMENT_STATUS_QUEUE =
             "payment.status.queue";
 
+    // Async intake: consumed by this service's own order workers
+    public static final String ORDER_COMMAND_QUEUE =
+            "order.command.queue";
+
+    // Commands put aside for a while (claimed elsewhere, or still failing), then dead-lettered back
+    public static final String ORDER_COMMAND_DELAY_QUEUE =
+            "order.command.delay.queue";
+
+    // Failed reservation commits reported by product-service
+    public static final String ORDER_INVENTORY_COMMIT_FAILED_QUEUE =
+            "order.inventory.commit-failed.queue";
+
+    // Per-instance queue name prefix (every instance must see every product event)
+    public static final String PRODUCT_CACHE_QUEUE_PREFIX =
+            "order.product-cache.";
+
+    // Events the broker nacked or could not route after all publish retries
+    public static final String ORDER_PUBLISH_PARKING_LOT_QUEUE =
+            "order.publish.parking-lot.queue";
+
     /* =========================================================
        EXCHANGES
        ========================================================= */
@@ -53,6 +116,27 @@ public class RabbitMQConfig {
         return new TopicExchange(PAYMENT_STATUS_TOPIC_EXCHANGE, true, false);
     }
 
+    @Bean
+    public DirectExchange orderCommandExchange() {
+        return new DirectExchange(ORDER_COMMAND_DIRECT_EXCHANGE, true, false);
+    }
+
+    /**
+     * Declared with the same arguments as product-service so either side can create it
+     */
+    @Bean
+    public FanoutExchange productsAnalyticsExchange() {
+        return new FanoutExchange(PRODUCTS_ANALYTICS_FANOUT_EXCHANGE, true, false);
+    }
+
+    /**
+     * Declared here too so requests don't fail if order-service starts first
+     */
+    @Bean
+    public DirectExchange productsInventoryExchange() {
+        return new DirectExchange(PRODUCTS_INVENTORY_DIRECT_EXCHANGE, true, false);
+    }
+
     /* =========================================================
        QUEUES
        ========================================================= */
@@ -81,6 +165,52 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(PAYMENT_STATUS_QUEUE).build();
     }
 
+    /**
+     * Create-order commands accepted by the async intake
+     */
+    @Bean
+    public Queue orderCommandQueue() {
+        return QueueBuilder.durable(ORDER_COMMAND_QUEUE).build();
+    }
+
+    /**
+     * No consumers: commands wait out the TTL, then go back to the command queue
+     */
+    @Bean
+    public Queue orderCommandDelayQueue(
+            @Value("${order.intake.requeue-delay:PT2S}") Duration requeueDelay
+    ) {
+        return QueueBuilder.durable(ORDER_COMMAND_DELAY_QUEUE)
+                .ttl((int) requeueDelay.toMillis())
+                .deadLetterExchange(ORDER_COMMAND_DIRECT_EXCHANGE)
+                .deadLetterRoutingKey(ORDER_COMMAND_CREATE_ROUTING_KEY)
+                .build();
+    }
+
+    /**
+     * Paid orders whose stock product-service could not commit
+     */
+    @Bean
+    public Queue orderInventoryCommitFailedQueue() {
+        return QueueBuilder.durable(ORDER_INVENTORY_COMMIT_FAILED_QUEUE).build();
+    }
+
+    /**
+     * Parked publishes, reached through the default exchange (no binding needed)
+     */
+    @Bean
+    public Queue orderPublishParkingLotQueue() {
+        return QueueBuilder.durable(ORDER_PUBLISH_PARKING_LOT_QUEUE).build();
+    }
+
+    /**
+     * Product events for cache invalidation: exclusive, auto-delete, one per instance
+     */
+    @Bean
+    public AnonymousQueue productCacheQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(PRODUCT_CACHE_QUEUE_PREFIX));
+    }
+
     /* =========================================================
        BINDINGS
        ========================================================= */
@@ -120,4 +250,36 @@ public class RabbitMQConfig {
                 .to(paymentStatusExchange())
                 .with("payment.status.*");
     }
+
+    /**
+     * Commands are competing-consumer work: any instance's worker may take it
+     */
+    @Bean
+    public Binding orderCommandBinding() {
+        return BindingBuilder
+                .bind(orderCommandQueue())
+                .to(orderCommandExchange())
+                .with(ORDER_COMMAND_CREATE_ROUTING_KEY);
+    }
+
+    /**
+     * Commit failures are handled once, by any instance
+     */
+    @Bean
+    public Binding orderInventoryCommitFailedBinding() {
+        return BindingBuilder
+                .bind(orderInventoryCommitFailedQueue())
+                .to(productsInventoryExchange())
+                .with(PRODUCTS_INVENTORY_COMMIT_FAILED_ROUTING_KEY);
+    }
+
+    /**
+     * Every product event reaches every order-service instance
+     */
+    @Bean
+    public Binding productCacheBinding() {
+        return BindingBuilder
+                .bind(productCacheQueue())
+                .to(productsAnalyticsExchange());
+    }
 }
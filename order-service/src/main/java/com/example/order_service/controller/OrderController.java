@@ -1,15 +1,34 @@
 package com.example.order_service.controller;
 
 import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.BulkOrderCreateResponse;
+import com.example.order_service.models.BulkStatusUpdateResponse;
 import com.example.order_service.models.OrderCreateRequest;
+import com.example.order_service.models.OrderIntakeResponse;
+import com.example.order_service.models.OrderPageResponse;
 import com.example.order_service.models.OrderResponse;
+import com.example.order_service.models.OrderStatsResponse;
+import com.example.order_service.models.OrderStatusUpdateRequest;
+import com.example.order_service.services.OrderIdempotencyService;
+import com.example.order_service.services.OrderIdempotencyService.IdempotentResult;
+import com.example.order_service.services.OrderIntakeService;
+import com.example.order_service.services.OrderQueryService;
 import com.example.order_service.services.OrderService;
+import com.example.order_service.services.OrderStatistics;
+import com.example.order_service.utils.OrderCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
@@ -24,19 +43,75 @@ public class OrderController {
     public static final String API_V1 = "/v1";
     public static final String ORDERS = "/orders";
     public static final String API_V1_ORDERS = API_V1 + ORDERS;
+    public static final String INTAKE = "/intake";
+    public static final String BULK = "/bulk";
+    public static final String PAGE = "/page";
+    public static final String STREAM = "/stream";
+    public static final String STATS = "/stats";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Order-Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderQueryService orderQueryService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderStatistics orderStatistics;
+    // Boot's configured mapper, so the NDJSON stream renders orders like every other endpoint
+    private final JsonMapper jsonMapper;
+
+    // When enabled, POST /v1/orders only validates and queues the order (202 Accepted)
+    @Value("${order.intake.async-enabled:false}")
+    private boolean asyncIntakeEnabled;
 
     /* =========================
        CREATE ORDER
        ========================= */
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody OrderCreateRequest request
     ) {
         log.info("Create order request received");
 
+        if (asyncIntakeEnabled) {
+            if (idempotencyKey != null) {
+                // A retried submit gets the original tracking id instead of a second order
+                IdempotentResult<OrderIntakeResponse> result = orderIdempotencyService.execute(
+                        idempotencyKey,
+                        request,
+                        OrderIntakeResponse.class,
+                        () -> orderIntakeService.submit(request)
+                );
+
+                return accepted(result.response())
+                        .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                        .body(result.response());
+            }
+
+            OrderIntakeResponse intake = orderIntakeService.submit(request);
+
+            return accepted(intake).body(intake);
+        }
+
+        if (idempotencyKey != null) {
+            IdempotentResult<OrderResponse> result = orderIdempotencyService.execute(
+                    idempotencyKey,
+                    request,
+                    OrderResponse.class,
+                    () -> mapToResponse(orderService.createOrder(request))
+            );
+
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.response());
+        }
+
         OrderEntity savedOrder = orderService.createOrder(request);
 
         return ResponseEntity
@@ -44,6 +119,41 @@ public class OrderController {
                 .body(mapToResponse(savedOrder));
     }
 
+    private ResponseEntity.BodyBuilder accepted(OrderIntakeResponse intake) {
+        return ResponseEntity
+                .accepted()
+                .location(
+                        ServletUriComponentsBuilder.fromCurrentRequest()
+                                .path(INTAKE + "/{trackingId}")
+                                .buildAndExpand(intake.getTrackingId())
+                                .toUri()
+                );
+    }
+
+    /* =========================
+       BULK CREATE ORDERS
+       ========================= */
+
+    @PostMapping(BULK)
+    public ResponseEntity<BulkOrderCreateResponse> createOrdersBulk(
+            @RequestBody List<OrderCreateRequest> requests
+    ) {
+        log.info("Bulk create order request received. orders={}", requests.size());
+
+        return ResponseEntity.ok(orderService.createOrdersBulk(requests));
+    }
+
+    /* =========================
+       ASYNC INTAKE STATUS
+       ========================= */
+
+    @GetMapping(INTAKE + "/{trackingId}")
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(
+            @PathVariable UUID trackingId
+    ) {
+        return ResponseEntity.ok(orderIntakeService.getIntake(trackingId));
+    }
+
     /* =========================
        READ OPERATIONS
        ========================= */
@@ -52,26 +162,75 @@ public class OrderController {
     public ResponseEntity<OrderResponse> getOrderById(
             @PathVariable UUID orderId
     ) {
-        OrderEntity order = orderService.getOrderById(orderId);
-        return ResponseEntity.ok(mapToResponse(order));
+        return ResponseEntity.ok(orderQueryService.getOrder(orderId));
     }
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> getOrdersByStatus(
             @RequestParam(required = false) OrderEntity.Status status
     ) {
-        List<OrderEntity> orders =
-                (status == null)
-                        ? orderService.getOrdersByStatus(OrderEntity.Status.CONFIRMED)
-                        : orderService.getOrdersByStatus(status);
+        return ResponseEntity.ok(
+                orderQueryService.getOrdersByStatus(
+                        status == null ? OrderEntity.Status.CONFIRMED : status
+                )
+        );
+    }
+
+    /**
+     * Keyset-paginated listing; pass the returned {@code nextCursor} to get the next page.
+     */
+    @GetMapping(PAGE)
+    public ResponseEntity<OrderPageResponse> getOrdersPageByStatus(
+            @RequestParam(required = false) OrderEntity.Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
         return ResponseEntity.ok(
-                orders.stream()
-                        .map(this::mapToResponse)
-                        .collect(Collectors.toList())
+                orderQueryService.getOrdersPageByStatus(
+                        status == null ? OrderEntity.Status.CONFIRMED : status,
+                        cursor == null ? null : OrderCursor.decode(cursor),
+                        limit
+                )
         );
     }
 
+    /**
+     * Streams every matching order as newline-delimited JSON without buffering the result.
+     */
+    @GetMapping(value = STREAM, produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByStatus(
+            @RequestParam(required = false) OrderEntity.Status status
+    ) {
+        OrderEntity.Status resolved =
+                status == null ? OrderEntity.Status.CONFIRMED : status;
+
+        StreamingResponseBody body = out ->
+                orderQueryService.forEachOrderByStatus(resolved, order -> {
+                    try {
+                        out.write(jsonMapper.writeValueAsBytes(order));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Order counts per status / payment status and hourly revenue, served from memory.
+     */
+    @GetMapping(STATS)
+    public ResponseEntity<OrderStatsResponse> getOrderStats() {
+        return ResponseEntity.ok(orderStatistics.snapshot());
+    }
+
     /* =========================
        ORDER STATUS UPDATE
        ========================= */
@@ -87,6 +246,18 @@ public class OrderController {
         return ResponseEntity.ok(mapToResponse(updatedOrder));
     }
 
+    /**
+     * Applies many status transitions at once; invalid items are reported per index.
+     */
+    @PatchMapping("/status" + BULK)
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatusesBulk(
+            @RequestBody List<OrderStatusUpdateRequest> updates
+    ) {
+        log.info("Bulk status update request received. orders={}", updates.size());
+
+        return ResponseEntity.ok(orderService.updateOrderStatusesBulk(updates));
+    }
+
     /* =========================
        PAYMENT STATUS UPDATE
        ========================= */
@@ -156,7 +327,6 @@ public class OrderController {
      * - Move mapping logic to MapStruct
      * - Add pagination & sorting
      * - Add authentication & authorization
-     * - Add idempotency key (Order-Idempotency-Key header)
      * - Emit ORDER_CREATED / PAYMENT_UPDATED events
      * - Add OpenAPI / Swagger annotations
      */
@@ -0,0 +1,34 @@
+package com.example.order_service.entity;
+
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses where a new order's line items are stored ({@code order.line-items.storage}):
+ * <p>
+ * - TABLE (default): one {@code order_products} row per line
+ * - PACKED: a single encoded {@code line_items} column on the orders row, so reads
+ *   need no join or second query
+ * <p>
+ * Only affects new orders; existing orders keep the layout they were written with,
+ * and {@link OrderEntity#getProducts()} reads either.
+ */
+@Component
+public class LineItemStorageListener {
+
+    public enum Storage {
+        TABLE,
+        PACKED
+    }
+
+    @Value("${order.line-items.storage:TABLE}")
+    private Storage storage;
+
+    @PrePersist
+    void beforeInsert(OrderEntity order) {
+        if (storage == Storage.PACKED) {
+            order.packLineItems();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.order_service.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -15,16 +16,25 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(
+        name = "orders",
+        indexes = {
+                // Keyset pagination / streaming by status: WHERE status = ? ORDER BY created_at, id
+                @Index(name = "idx_orders_status_created_at", columnList = "status, created_at, id"),
+                @Index(name = "idx_orders_payment_status_created_at", columnList = "payment_status, created_at, id"),
+                @Index(name = "idx_orders_created_at", columnList = "created_at")
+        }
+)
 @Data
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, LineItemStorageListener.class})
 public class OrderEntity {
 
+    // UUIDv7: time-ordered, so inserts append to the primary-key index
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @JdbcTypeCode(SqlTypes.UUID)
     private UUID id;
 
@@ -36,6 +46,11 @@ public class OrderEntity {
     @Builder.Default
     private List<OrderProduct> products = new ArrayList<>();
 
+    // Set instead of order_products rows when line items are stored packed
+    @Convert(converter = PackedLineItemsConverter.class)
+    @Column(name = "line_items", length = 1_048_576)
+    private List<OrderProduct> packedProducts;
+
     @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
     private BigDecimal total;
 
@@ -54,6 +69,11 @@ public class OrderEntity {
     @JoinColumn(name = "address_id")
     private Address address;
 
+    // Optimistic locking: concurrent status / payment updates fail instead of overwriting
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // ===== Auditing =====
 
     @CreatedDate
@@ -64,6 +84,25 @@ public class OrderEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // ===== Line items =====
+
+    /**
+     * Line items, whichever way they are stored.
+     */
+    public List<OrderProduct> getProducts() {
+        return packedProducts != null ? packedProducts : products;
+    }
+
+    /**
+     * Moves line items into the packed column; only valid before the first insert.
+     */
+    void packLineItems() {
+        if (packedProducts == null) {
+            packedProducts = new ArrayList<>(products);
+            products.clear();
+        }
+    }
+
     // ===== Enums =====
 
     public enum Status {
@@ -0,0 +1,64 @@
+package com.example.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Durable record of an {@code Order-Idempotency-Key} and the response it produced.
+ */
+@Entity
+@Table(
+        name = "order_idempotency_keys",
+        indexes = @Index(name = "idx_order_idempotency_keys_expires_at", columnList = "expires_at")
+)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OrderIdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body; a reused key with a different body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private KeyStatus status;
+
+    // Identifies the request holding the claim; only that request may complete or release it
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "claim_token", nullable = false)
+    private UUID claimToken;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    // Serialized response (order, or async intake), set once COMPLETED
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Lease end while IN_PROGRESS, retention end once COMPLETED
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // ===== Enums =====
+
+    public enum KeyStatus {
+        IN_PROGRESS,  // Claimed by a request that is still creating the order
+        COMPLETED     // Order created (in the same transaction), responseBody can be replayed
+    }
+}
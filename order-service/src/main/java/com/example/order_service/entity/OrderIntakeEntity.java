@@ -0,0 +1,63 @@
+package com.example.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Tracks an order accepted asynchronously until a worker has created it.
+ */
+@Entity
+@Table(name = "order_intake")
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class OrderIntakeEntity {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @JdbcTypeCode(SqlTypes.UUID)
+    private UUID trackingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private IntakeStatus status = IntakeStatus.ACCEPTED;
+
+    // Set once the worker has created the order
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    // ===== Auditing =====
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // ===== Enums =====
+
+    public enum IntakeStatus {
+        ACCEPTED,    // Command queued, not picked up yet
+        PROCESSING,  // Worker is pricing / persisting / reducing inventory
+        COMPLETED,   // Order created, see orderId
+        FAILED       // Rejected, see failureReason
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Event waiting to be relayed to RabbitMQ.
+ * <p>
+ * Rows are written in the same transaction as the order change that produced them
+ * and deleted by {@code OutboxRelay} once the broker has confirmed the publish.
+ * A relay instance claims rows for {@code lease_until} before publishing them;
+ * rows the broker keeps refusing end up DEAD and are no longer relayed.
+ */
+@Entity
+@Table(
+        name = "order_outbox",
+        indexes = {
+                @Index(name = "idx_order_outbox_status_id", columnList = "status, id"),
+                @Index(name = "idx_order_outbox_claim_token", columnList = "claim_token")
+        }
+)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEventEntity {
+
+    // Sequence (not IDENTITY) keeps inserts batchable and gives relay order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    // Encoded with EventCodec; the content type travels with it so the relay
+    // can still publish rows written before an encoding change
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // Publishes the broker refused (nack, unroutable, unencodable)
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    // Set while a relay round owns the row; also defers the retry of a refused publish
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    // ===== Auditing =====
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // ===== Enums =====
+
+    public enum Status {
+        PENDING,  // Waiting for (or being) relayed
+        DEAD      // Refused max-attempts times, parked for inspection
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.order_service.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes an order's line items into one compact binary column.
+ * <p>
+ * Layout (version 1):
+ * <pre>
+ * byte    version
+ * varint  line count
+ * per line:
+ *   long, long  productId (most / least significant bits)
+ *   varint      quantity
+ *   byte        unitPrice scale (signed, -128..127)
+ *   byte[]      unitPrice unscaled value (varint length + two's complement bytes)
+ * </pre>
+ * A typical line takes about 21 bytes. New layouts must bump the version and keep
+ * decoding the old ones.
+ */
+@Converter
+public class PackedLineItemsConverter
+        implements AttributeConverter<List<OrderEntity.OrderProduct>, byte[]> {
+
+    private static final byte VERSION_1 = 1;
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<OrderEntity.OrderProduct> lines) {
+        if (lines == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2 + lines.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION_1);
+            writeVarInt(out, lines.size());
+
+            for (OrderEntity.OrderProduct line : lines) {
+                out.writeLong(line.getProductId().getMostSignificantBits());
+                out.writeLong(line.getProductId().getLeastSignificantBits());
+                writeVarInt(out, line.getQuantity());
+
+                int scale = line.getUnitPrice().scale();
+                if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+                    // Would be truncated to a byte and decode to a different price
+                    throw new IllegalArgumentException("Unit price scale out of range: " + scale);
+                }
+
+                byte[] unscaled = line.getUnitPrice().unscaledValue().toByteArray();
+                out.writeByte(scale);
+                writeVarInt(out, unscaled.length);
+                out.write(unscaled);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<OrderEntity.OrderProduct> convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(column))) {
+            byte version = in.readByte();
+            if (version != VERSION_1) {
+                throw new IllegalStateException("Unsupported line items encoding version " + version);
+            }
+
+            int count = readVarInt(in);
+            List<OrderEntity.OrderProduct> lines = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                UUID productId = new UUID(in.readLong(), in.readLong());
+                int quantity = readVarInt(in);
+                int scale = in.readByte();
+                byte[] unscaled = in.readNBytes(readVarInt(in));
+
+                lines.add(new OrderEntity.OrderProduct(
+                        productId,
+                        quantity,
+                        new BigDecimal(new BigInteger(unscaled), scale)
+                ));
+            }
+            return lines;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /* =========================
+       VARINT (unsigned LEB128)
+       ========================= */
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in line items column");
+    }
+}
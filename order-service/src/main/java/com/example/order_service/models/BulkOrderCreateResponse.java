@@ -0,0 +1,72 @@
+package com.example.order_service.models;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderCreateResponse {
+
+    private int created;
+    private int failed;
+    // Saved, but whether product-service applied its inventory hold is unknown
+    private int unknown;
+
+    // One entry per submitted order, in request order
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        private int index;
+        private ResultStatus status;
+        private UUID orderId;
+        private BigDecimal totalAmount;
+        private String error;
+
+        public static Result created(int index, UUID orderId, BigDecimal totalAmount) {
+            return Result.builder()
+                    .index(index)
+                    .status(ResultStatus.CREATED)
+                    .orderId(orderId)
+                    .totalAmount(totalAmount)
+                    .build();
+        }
+
+        /**
+         * The order was saved but its inventory call timed out or failed in transit,
+         * so the hold may or may not have been applied. Check or cancel it by id.
+         */
+        public static Result unknown(int index, UUID orderId, BigDecimal totalAmount, String error) {
+            return Result.builder()
+                    .index(index)
+                    .status(ResultStatus.UNKNOWN)
+                    .orderId(orderId)
+                    .totalAmount(totalAmount)
+                    .error(error)
+                    .build();
+        }
+
+        public static Result failed(int index, String error) {
+            return Result.builder()
+                    .index(index)
+                    .status(ResultStatus.FAILED)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    public enum ResultStatus {
+        CREATED,
+        FAILED,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResponse {
+
+    private int updated;
+    private int failed;
+
+    // One entry per submitted item, in request order
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        private int index;
+        private UUID orderId;
+        private ResultStatus status;
+        private OrderEntity.Status previousStatus;
+        private OrderEntity.Status newStatus;
+        private String error;
+
+        public static Result updated(
+                int index,
+                UUID orderId,
+                OrderEntity.Status previousStatus,
+                OrderEntity.Status newStatus
+        ) {
+            return Result.builder()
+                    .index(index)
+                    .orderId(orderId)
+                    .status(ResultStatus.UPDATED)
+                    .previousStatus(previousStatus)
+                    .newStatus(newStatus)
+                    .build();
+        }
+
+        public static Result failed(int index, UUID orderId, String error) {
+            return Result.builder()
+                    .index(index)
+                    .orderId(orderId)
+                    .status(ResultStatus.FAILED)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    public enum ResultStatus {
+        UPDATED,
+        FAILED
+    }
+}
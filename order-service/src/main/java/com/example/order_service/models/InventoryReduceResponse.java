@@ -13,7 +13,7 @@ import java.util.UUID;
 @NoArgsConstructor
 public class InventoryReduceResponse {
 
-    private String status; // SUCCESS / FAILED
+    private String status; // SUCCESS / FAILED (rejected) / ERROR (may be retried)
     private List<UUID> processedProductIds;
     private Instant processedAt;
 }
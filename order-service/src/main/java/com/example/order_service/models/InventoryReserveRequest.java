@@ -0,0 +1,25 @@
+package com.example.order_service.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryReserveRequest {
+
+    private List<Reservation> reservations;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Reservation {
+
+        private UUID orderId;
+        private List<InventoryBulkReduceRequest.Item> items;
+    }
+}
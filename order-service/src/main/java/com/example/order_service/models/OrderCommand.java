@@ -0,0 +1,18 @@
+package com.example.order_service.models;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Create-order command carried on the order command queue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCommand {
+
+    private UUID trackingId;
+    private OrderCreateRequest order;
+}
@@ -0,0 +1,32 @@
+package com.example.order_service.models;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntakeResponse {
+
+    private UUID trackingId;
+    private IntakeStatus status;
+
+    // Present once COMPLETED
+    private UUID orderId;
+
+    // Present once FAILED
+    private String failureReason;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public enum IntakeStatus {
+        ACCEPTED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+}
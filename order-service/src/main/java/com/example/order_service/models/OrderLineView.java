@@ -0,0 +1,15 @@
+package com.example.order_service.models;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only order line item, keyed by its order.
+ */
+public record OrderLineView(
+        UUID orderId,
+        UUID productId,
+        int quantity,
+        BigDecimal unitPrice
+) {
+}
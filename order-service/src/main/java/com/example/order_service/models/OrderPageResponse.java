@@ -0,0 +1,17 @@
+package com.example.order_service.models;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+
+    private List<OrderResponse> items;
+
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
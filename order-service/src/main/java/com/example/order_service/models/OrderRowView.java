@@ -0,0 +1,29 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only order row joined with its address (no managed entity, no lazy loads).
+ */
+public record OrderRowView(
+        UUID id,
+        BigDecimal total,
+        OrderEntity.Status status,
+        OrderEntity.PaymentStatus paymentStatus,
+        Instant createdAt,
+        Instant updatedAt,
+        String line1,
+        String line2,
+        String city,
+        String state,
+        String country,
+        String postalCode,
+        // Non-null when the order's line items are stored packed on the row
+        List<OrderEntity.OrderProduct> packedLines
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatsResponse {
+
+    private long totalOrders;
+    private Map<OrderEntity.Status, Long> byStatus;
+    private Map<OrderEntity.PaymentStatus, Long> byPaymentStatus;
+
+    // Booked revenue keyed by the start of the hour the orders were created in
+    private Map<Instant, BigDecimal> revenueByHour;
+}
@@ -0,0 +1,16 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusUpdateRequest {
+
+    private UUID orderId;
+    private OrderEntity.Status status;
+}
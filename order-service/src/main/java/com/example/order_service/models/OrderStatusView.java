@@ -0,0 +1,16 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+
+import java.util.UUID;
+
+/**
+ * Current status of an order, for set-based transitions. The version pins the
+ * row as it was read, so a transition only applies if nobody changed it since.
+ */
+public record OrderStatusView(
+        UUID id,
+        OrderEntity.Status status,
+        Long version
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+
+public record PaymentStatusCountView(
+        OrderEntity.PaymentStatus paymentStatus,
+        Long count
+) {
+}
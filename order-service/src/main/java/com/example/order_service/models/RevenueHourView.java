@@ -0,0 +1,12 @@
+package com.example.order_service.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Booked revenue of the orders created in one hour ({@code epochHour} = epoch seconds / 3600).
+ */
+public record RevenueHourView(
+        long epochHour,
+        BigDecimal revenue
+) {
+}
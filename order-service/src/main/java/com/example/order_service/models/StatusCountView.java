@@ -0,0 +1,9 @@
+package com.example.order_service.models;
+
+import com.example.order_service.entity.OrderEntity;
+
+public record StatusCountView(
+        OrderEntity.Status status,
+        Long count
+) {
+}
@@ -0,0 +1,47 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.OrderIdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKeyEntity, String> {
+
+    /**
+     * Settles the key with its response, only while {@code claimToken} still holds
+     * the claim. Returns 0 if the lease ran out and another request took the key over.
+     */
+    @Modifying
+    @Query("""
+                UPDATE OrderIdempotencyKeyEntity k
+                SET k.status = com.example.order_service.entity.OrderIdempotencyKeyEntity.KeyStatus.COMPLETED,
+                    k.orderId = :orderId,
+                    k.responseBody = :responseBody,
+                    k.expiresAt = :expiresAt
+                WHERE k.idempotencyKey = :idempotencyKey
+                  AND k.claimToken = :claimToken
+                  AND k.status = com.example.order_service.entity.OrderIdempotencyKeyEntity.KeyStatus.IN_PROGRESS
+            """)
+    int complete(String idempotencyKey, UUID claimToken, UUID orderId, String responseBody, Instant expiresAt);
+
+    /**
+     * Frees a claim after a failed request, unless another request has taken the key over.
+     */
+    @Modifying
+    @Query("""
+                DELETE FROM OrderIdempotencyKeyEntity k
+                WHERE k.idempotencyKey = :idempotencyKey
+                  AND k.claimToken = :claimToken
+                  AND k.status = com.example.order_service.entity.OrderIdempotencyKeyEntity.KeyStatus.IN_PROGRESS
+            """)
+    int release(String idempotencyKey, UUID claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKeyEntity k WHERE k.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,42 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.OrderIntakeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface OrderIntakeRepository extends JpaRepository<OrderIntakeEntity, UUID> {
+
+    /**
+     * Claims a command for one worker: only an ACCEPTED row, or a PROCESSING
+     * one whose claim was taken before {@code staleBefore} (its worker died),
+     * moves to PROCESSING. Returns 0 if another worker holds it or it is settled.
+     */
+    @Modifying
+    @Query("""
+                UPDATE OrderIntakeEntity i
+                SET i.status = com.example.order_service.entity.OrderIntakeEntity.IntakeStatus.PROCESSING,
+                    i.updatedAt = :now
+                WHERE i.trackingId = :trackingId
+                  AND (i.status = com.example.order_service.entity.OrderIntakeEntity.IntakeStatus.ACCEPTED
+                       OR (i.status = com.example.order_service.entity.OrderIntakeEntity.IntakeStatus.PROCESSING
+                           AND i.updatedAt < :staleBefore))
+            """)
+    int claim(UUID trackingId, Instant now, Instant staleBefore);
+
+    /**
+     * Hands a claimed command back (PROCESSING → ACCEPTED) so a redelivery can claim it.
+     */
+    @Modifying
+    @Query("""
+                UPDATE OrderIntakeEntity i
+                SET i.status = com.example.order_service.entity.OrderIntakeEntity.IntakeStatus.ACCEPTED,
+                    i.updatedAt = :now
+                WHERE i.trackingId = :trackingId
+                  AND i.status = com.example.order_service.entity.OrderIntakeEntity.IntakeStatus.PROCESSING
+            """)
+    int unclaim(UUID trackingId, Instant now);
+}
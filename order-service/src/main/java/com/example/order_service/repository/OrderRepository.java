@@ -1,13 +1,27 @@
 package com.example.order_service.repository;
 
 import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.OrderLineView;
+import com.example.order_service.models.PaymentStatusCountView;
+import com.example.order_service.models.RevenueHourView;
+import com.example.order_service.models.OrderRowView;
+import com.example.order_service.models.OrderStatusView;
+import com.example.order_service.models.StatusCountView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
+public interface OrderRepository extends JpaRepository<OrderEntity, UUID>, OrderStatusBatchRepository {
 
     List<OrderEntity> findByStatus(OrderEntity.Status status);
 
@@ -22,4 +36,118 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
             OrderEntity.Status status,
             OrderEntity.PaymentStatus paymentStatus
     );
+
+    /* =========================================================
+       READ PROJECTIONS (no entities, no N+1)
+       ========================================================= */
+
+    String ORDER_ROW_SELECT = """
+                SELECT new com.example.order_service.models.OrderRowView(
+                    o.id, o.total, o.status, o.paymentStatus, o.createdAt, o.updatedAt,
+                    a.line1, a.line2, a.city, a.state, a.country, a.postalCode,
+                    o.packedProducts)
+                FROM OrderEntity o
+                LEFT JOIN o.address a
+            """;
+
+    @Query(ORDER_ROW_SELECT + """
+                WHERE o.id = :id
+            """)
+    Optional<OrderRowView> findRowById(UUID id);
+
+    @Query(ORDER_ROW_SELECT + """
+                WHERE o.status = :status
+                ORDER BY o.createdAt, o.id
+            """)
+    List<OrderRowView> findRowsByStatus(OrderEntity.Status status);
+
+    /**
+     * Line items for many orders in one query.
+     */
+    @Query("""
+                SELECT new com.example.order_service.models.OrderLineView(
+                    o.id, p.productId, p.quantity, p.unitPrice)
+                FROM OrderEntity o
+                JOIN o.products p
+                WHERE o.id IN :orderIds
+            """)
+    List<OrderLineView> findLinesByOrderIds(Collection<UUID> orderIds);
+
+    /* =========================================================
+       KEYSET PAGINATION (created_at, id)
+       ========================================================= */
+
+    @Query(ORDER_ROW_SELECT + """
+                WHERE o.status = :status
+                ORDER BY o.createdAt, o.id
+            """)
+    List<OrderRowView> findFirstRowPageByStatus(OrderEntity.Status status, Limit limit);
+
+    @Query(ORDER_ROW_SELECT + """
+                WHERE o.status = :status
+                  AND (o.createdAt > :createdAt
+                       OR (o.createdAt = :createdAt AND o.id > :id))
+                ORDER BY o.createdAt, o.id
+            """)
+    List<OrderRowView> findRowPageByStatusAfter(
+            OrderEntity.Status status,
+            Instant createdAt,
+            UUID id,
+            Limit limit
+    );
+
+    /**
+     * Forward-only cursor over all orders with a status; must be consumed
+     * inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ORDER_ROW_SELECT + """
+                WHERE o.status = :status
+                ORDER BY o.createdAt, o.id
+            """)
+    Stream<OrderRowView> streamRowsByStatus(OrderEntity.Status status);
+
+    /* =========================================================
+       SET-BASED STATUS TRANSITIONS
+       ========================================================= */
+
+    @Query("""
+                SELECT new com.example.order_service.models.OrderStatusView(o.id, o.status, o.version)
+                FROM OrderEntity o
+                WHERE o.id IN :ids
+            """)
+    List<OrderStatusView> findStatusesByIdIn(Collection<UUID> ids);
+
+    /* =========================================================
+       STATISTICS REBUILD (startup only)
+       ========================================================= */
+
+    @Query("""
+                SELECT new com.example.order_service.models.StatusCountView(o.status, COUNT(o))
+                FROM OrderEntity o
+                GROUP BY o.status
+            """)
+    List<StatusCountView> countByStatus();
+
+    @Query("""
+                SELECT new com.example.order_service.models.PaymentStatusCountView(o.paymentStatus, COUNT(o))
+                FROM OrderEntity o
+                GROUP BY o.paymentStatus
+            """)
+    List<PaymentStatusCountView> countByPaymentStatus();
+
+    /**
+     * One row per creation hour, summed by the database. Hours are taken from
+     * epoch seconds, so buckets are UTC whatever the session time zone.
+     */
+    @Query("""
+                SELECT new com.example.order_service.models.RevenueHourView(
+                    cast(floor(extract(epoch from o.createdAt) / 3600.0) as Long),
+                    sum(o.total)
+                )
+                FROM OrderEntity o
+                WHERE o.createdAt >= :since
+                GROUP BY cast(floor(extract(epoch from o.createdAt) / 3600.0) as Long)
+            """)
+    List<RevenueHourView> sumRevenueByHourSince(Instant since);
 }
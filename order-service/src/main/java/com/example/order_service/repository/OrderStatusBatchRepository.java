@@ -0,0 +1,23 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.OrderStatusView;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Status transitions Spring Data can't express with a per-row outcome in one
+ * round trip.
+ */
+public interface OrderStatusBatchRepository {
+
+    /**
+     * Sends one conditional UPDATE per order in a single JDBC batch. A row only
+     * moves to {@code next} if it still has the status and version it was read
+     * with, and its version is bumped like a JPA update would.
+     *
+     * @return rows updated per order, in list order (0 = changed concurrently)
+     */
+    int[] updateStatusIfUnchanged(List<OrderStatusView> read, OrderEntity.Status next, Instant updatedAt);
+}
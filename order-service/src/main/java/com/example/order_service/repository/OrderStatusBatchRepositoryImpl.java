@@ -0,0 +1,45 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.OrderStatusView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@RequiredArgsConstructor
+class OrderStatusBatchRepositoryImpl implements OrderStatusBatchRepository {
+
+    private static final String UPDATE_STATUS_IF_UNCHANGED = """
+            UPDATE orders
+            SET status = ?,
+                version = version + 1,
+                updated_at = ?
+            WHERE id = ?
+              AND status = ?
+              AND version = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] updateStatusIfUnchanged(List<OrderStatusView> read, OrderEntity.Status next, Instant updatedAt) {
+        OffsetDateTime timestamp = OffsetDateTime.ofInstant(updatedAt, ZoneOffset.UTC);
+
+        return jdbcTemplate.batchUpdate(
+                UPDATE_STATUS_IF_UNCHANGED,
+                read.stream()
+                        .map(row -> new Object[]{
+                                next.name(),
+                                timestamp,
+                                row.id(),
+                                row.status().name(),
+                                row.version()
+                        })
+                        .toList()
+        );
+    }
+}
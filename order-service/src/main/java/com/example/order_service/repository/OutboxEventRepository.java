@@ -0,0 +1,88 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.OutboxEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Oldest pending events nobody holds a lease on, so the relay publishes in
+     * commit order.
+     */
+    @Query("""
+                SELECT e.id
+                FROM OutboxEventEntity e
+                WHERE e.status = com.example.order_service.entity.OutboxEventEntity.Status.PENDING
+                  AND (e.leaseUntil IS NULL OR e.leaseUntil < :now)
+                ORDER BY e.id
+            """)
+    List<Long> findClaimableIds(Instant now, Pageable pageable);
+
+    /**
+     * Leases the listed events to one relay round. The lease is re-checked in the
+     * UPDATE, so of two instances reading the same ids only one claims each row.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE OutboxEventEntity e
+                SET e.claimToken = :claimToken,
+                    e.leaseUntil = :leaseUntil
+                WHERE e.id IN :ids
+                  AND e.status = com.example.order_service.entity.OutboxEventEntity.Status.PENDING
+                  AND (e.leaseUntil IS NULL OR e.leaseUntil < :now)
+            """)
+    int claim(List<Long> ids, UUID claimToken, Instant now, Instant leaseUntil);
+
+    List<OutboxEventEntity> findByClaimTokenOrderById(UUID claimToken);
+
+    /**
+     * Counts a refused publish and keeps the row away from relays until {@code retryAt}.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE OutboxEventEntity e
+                SET e.attempts = e.attempts + 1,
+                    e.claimToken = NULL,
+                    e.leaseUntil = :retryAt
+                WHERE e.id IN :ids
+                  AND e.claimToken = :claimToken
+            """)
+    int recordRefused(List<Long> ids, UUID claimToken, Instant retryAt);
+
+    /**
+     * Hands events back without counting an attempt (not sent, or outcome unknown).
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE OutboxEventEntity e
+                SET e.claimToken = NULL,
+                    e.leaseUntil = NULL
+                WHERE e.id IN :ids
+                  AND e.claimToken = :claimToken
+            """)
+    int release(List<Long> ids, UUID claimToken);
+
+    /**
+     * Parks the listed events that have been refused {@code maxAttempts} times.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE OutboxEventEntity e
+                SET e.status = com.example.order_service.entity.OutboxEventEntity.Status.DEAD
+                WHERE e.id IN :ids
+                  AND e.attempts >= :maxAttempts
+            """)
+    int markDead(List<Long> ids, int maxAttempts);
+}
@@ -0,0 +1,186 @@
+package com.example.order_service.services;
+
+import com.example.order_service.models.OrderCommand;
+import com.example.order_service.utils.DeadlineExceededException;
+import com.example.order_service.utils.DownstreamUnavailableException;
+import com.example.order_service.utils.EventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.order_service.configuration.RabbitMQConfig.ORDER_COMMAND_DELAY_QUEUE;
+import static com.example.order_service.configuration.RabbitMQConfig.ORDER_COMMAND_QUEUE;
+
+/**
+ * Worker pool for the async order intake.
+ * <p>
+ * Concurrency is set with {@code order.intake.worker-concurrency}
+ * (e.g. {@code 4} or {@code 4-16} to scale with the backlog).
+ * <p>
+ * Every attempt creates the order from scratch (new order id, new inventory
+ * call), so only failures where the downstream provably never got the call are
+ * retried: guards refusing it (bulkhead full, circuit open), connect failures,
+ * a deadline that ran out before the call, an explicit {@code ERROR} reply,
+ * 5xx / 429, or a transaction that could not even begin. Those are retried in
+ * place with full-jitter backoff up to {@code order.intake.retry.max-attempts};
+ * after that the claim is given back and the command waits in the delay queue,
+ * so the order waits out the outage instead of failing.
+ * <p>
+ * Everything else is final, including read and RPC reply timeouts: the
+ * inventory call may have been applied, and repeating it would take the stock
+ * twice (REDUCE) or leave a hold under a discarded order id (RESERVE).
+ * <p>
+ * Metrics:
+ * - {@code order.intake.retries}: attempts that failed with a retryable error
+ */
+@Component
+@Slf4j
+public class OrderCommandListener {
+
+    private final OrderIntakeService orderIntakeService;
+    private final EventCodec eventCodec;
+    private final RabbitTemplate rabbitTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final Counter retries;
+
+    public OrderCommandListener(
+            OrderIntakeService orderIntakeService,
+            EventCodec eventCodec,
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.intake.retry.max-attempts:5}") int maxAttempts,
+            @Value("${order.intake.retry.base-backoff:PT0.5S}") Duration baseBackoff,
+            @Value("${order.intake.retry.max-backoff:PT10S}") Duration maxBackoff
+    ) {
+        this.orderIntakeService = orderIntakeService;
+        this.eventCodec = eventCodec;
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+
+        this.retries = meterRegistry.counter("order.intake.retries");
+    }
+
+    @RabbitListener(
+            queues = ORDER_COMMAND_QUEUE,
+            concurrency = "${order.intake.worker-concurrency:4}"
+    )
+    public void handleOrderCommand(Message message) {
+        OrderCommand command;
+        try {
+            command = eventCodec.decode(message, OrderCommand.class);
+        } catch (Exception ex) {
+            log.error("❌ Invalid ORDER COMMAND payload, dropping: {}", message, ex);
+            return;
+        }
+
+        UUID trackingId = command.getTrackingId();
+
+        switch (orderIntakeService.claim(trackingId)) {
+            case SETTLED -> {
+                return;
+            }
+            case BUSY -> {
+                // Duplicate of a command in progress, or its worker died: look again later
+                // (a dead worker's claim is taken over once it is older than the claim timeout)
+                log.info("Order command claimed by another worker, delaying. trackingId={}", trackingId);
+                delay(message, trackingId);
+            }
+            case CLAIMED -> process(message, command);
+        }
+    }
+
+    private void process(Message message, OrderCommand command) {
+        UUID trackingId = command.getTrackingId();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                orderIntakeService.complete(command);
+                return;
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex)) {
+                    // Business failures are final; the client sees them when polling
+                    orderIntakeService.fail(trackingId, ex.getMessage());
+                    return;
+                }
+
+                retries.increment();
+
+                if (attempt >= maxAttempts) {
+                    log.warn("Order command still failing after {} attempts, delaying. trackingId={}, reason={}",
+                            attempt, trackingId, ex.getMessage());
+                    orderIntakeService.unclaim(trackingId);
+                    delay(message, trackingId);
+                    return;
+                }
+
+                log.info("Order command failed, retrying. trackingId={}, attempt={}, reason={}",
+                        trackingId, attempt, ex.getMessage());
+                pause(ThreadLocalRandom.current().nextLong(
+                        Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt, 20)) + 1));
+            }
+        }
+    }
+
+    /**
+     * Parks the command in the delay queue (dead-lettered back after
+     * {@code order.intake.requeue-delay}) and acks it, so the consumer moves on
+     * to its other prefetched commands instead of waiting.
+     */
+    private void delay(Message message, UUID trackingId) {
+        try {
+            rabbitTemplate.send("", ORDER_COMMAND_DELAY_QUEUE, message);
+        } catch (AmqpException ex) {
+            throw new ImmediateRequeueAmqpException("Order command requeued: " + trackingId, ex);
+        }
+    }
+
+    // The downstream never got the call (or answered that it applied nothing): safe to repeat
+    private static boolean isRetryable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DownstreamUnavailableException
+                    || cause instanceof DeadlineExceededException
+                    || cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpConnectTimeoutException
+                    || cause instanceof AmqpConnectException
+                    || cause instanceof HttpServerErrorException
+                    || cause instanceof HttpClientErrorException.TooManyRequests
+                    || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
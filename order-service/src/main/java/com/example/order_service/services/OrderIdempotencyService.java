@@ -0,0 +1,282 @@
+package com.example.order_service.services;
+
+import com.example.order_service.entity.OrderIdempotencyKeyEntity;
+import com.example.order_service.entity.OrderIdempotencyKeyEntity.KeyStatus;
+import com.example.order_service.models.OrderResponse;
+import com.example.order_service.repository.OrderIdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates order creation (and async order intake) by {@code Order-Idempotency-Key}.
+ * <p>
+ * - Hot tier: bounded in-memory map of recently completed keys, answers most
+ *   retries without touching the database
+ * - Durable tier: {@code order_idempotency_keys} table; the primary key makes the
+ *   claim atomic, so concurrent requests with the same key cannot both create
+ *   an order, while requests with different keys never wait on each other
+ * - A key reused with a different request body is rejected (422), a key whose
+ *   first request is still running is rejected (409)
+ * - The key is settled (COMPLETED, with the response) in the transaction that
+ *   creates the order, so the order and its key commit or roll back together;
+ *   a request that dies mid-way leaves neither behind
+ * - Claims are leased: if the claiming request dies, the key frees up after
+ *   {@code in-progress-timeout}; completed keys are kept for {@code ttl}. A
+ *   request whose claim was taken over meanwhile rolls its order back (409)
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderIdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate transactional;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, CompletedKey> hotKeys;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+
+    public OrderIdempotencyService(
+            OrderIdempotencyKeyRepository idempotencyKeyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.idempotency.hot-tier-size:10000}") long hotTierSize,
+            @Value("${order.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${order.idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout
+    ) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactional = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.hotKeys = Caffeine.newBuilder()
+                .maximumSize(hotTierSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /* =========================
+       EXECUTE
+       ========================= */
+
+    /**
+     * Runs {@code action} at most once per key and returns its response, or the
+     * stored response if the key has already completed. {@code action} runs in
+     * the same transaction that settles the key.
+     */
+    public <T> IdempotentResult<T> execute(
+            String idempotencyKey,
+            Object request,
+            Class<T> responseType,
+            Supplier<T> action
+    ) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Idempotency key must be 1-" + MAX_KEY_LENGTH + " characters"
+            );
+        }
+
+        // The response type is part of the hash: a key used for a synchronous order
+        // can't be replayed as an async intake (or vice versa)
+        String requestHash = hash(responseType, request);
+
+        CompletedKey hot = hotKeys.getIfPresent(idempotencyKey);
+        if (hot != null) {
+            return replay(idempotencyKey, requestHash, responseType, hot);
+        }
+
+        UUID claimToken = UUID.randomUUID();
+
+        CompletedKey completed = claim(idempotencyKey, requestHash, responseType, claimToken);
+        if (completed != null) {
+            hotKeys.put(idempotencyKey, completed);
+            return replay(idempotencyKey, requestHash, responseType, completed);
+        }
+
+        T response;
+        try {
+            response = transactional.execute(tx -> {
+                T created = action.get();
+                complete(idempotencyKey, claimToken, created);
+                return created;
+            });
+        } catch (RuntimeException ex) {
+            release(idempotencyKey, claimToken);
+            throw ex;
+        }
+
+        hotKeys.put(idempotencyKey, new CompletedKey(requestHash, response));
+
+        return new IdempotentResult<>(response, false);
+    }
+
+    /* =========================
+       DURABLE TIER
+       ========================= */
+
+    /**
+     * Inserts an IN_PROGRESS row for the key, or returns the stored response if the
+     * key already completed.
+     */
+    private CompletedKey claim(
+            String idempotencyKey,
+            String requestHash,
+            Class<?> responseType,
+            UUID claimToken
+    ) {
+        try {
+            return requiresNew.execute(tx -> {
+                Instant now = Instant.now();
+
+                OrderIdempotencyKeyEntity existing =
+                        idempotencyKeyRepository.findById(idempotencyKey).orElse(null);
+
+                if (existing != null && existing.getExpiresAt().isAfter(now)) {
+                    if (!existing.getRequestHash().equals(requestHash)) {
+                        throw keyReused(idempotencyKey);
+                    }
+                    if (existing.getStatus() == KeyStatus.IN_PROGRESS) {
+                        throw inProgress(idempotencyKey);
+                    }
+                    return new CompletedKey(
+                            existing.getRequestHash(),
+                            objectMapper.readValue(existing.getResponseBody(), responseType)
+                    );
+                }
+
+                if (existing != null) {
+                    // Lease ran out or retention expired; take the key over
+                    idempotencyKeyRepository.delete(existing);
+                    idempotencyKeyRepository.flush();
+                }
+
+                idempotencyKeyRepository.saveAndFlush(
+                        OrderIdempotencyKeyEntity.builder()
+                                .idempotencyKey(idempotencyKey)
+                                .requestHash(requestHash)
+                                .status(KeyStatus.IN_PROGRESS)
+                                .claimToken(claimToken)
+                                .createdAt(now)
+                                .expiresAt(now.plus(inProgressTimeout))
+                                .build()
+                );
+                return null;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another request inserted the same key between our read and insert
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    /**
+     * Runs inside the order's transaction; throwing here rolls the order back.
+     */
+    private void complete(String idempotencyKey, UUID claimToken, Object response) {
+        int settled = idempotencyKeyRepository.complete(
+                idempotencyKey,
+                claimToken,
+                response instanceof OrderResponse order ? order.getOrderId() : null,
+                objectMapper.writeValueAsString(response),
+                Instant.now().plus(ttl)
+        );
+
+        if (settled == 0) {
+            // Our lease ran out and another request owns the key now
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    private void release(String idempotencyKey, UUID claimToken) {
+        try {
+            requiresNew.executeWithoutResult(tx ->
+                    idempotencyKeyRepository.release(idempotencyKey, claimToken)
+            );
+        } catch (RuntimeException ex) {
+            // The lease still expires on its own
+            log.warn("Failed to release idempotency key. key={}", idempotencyKey, ex);
+        }
+    }
+
+    /* =========================
+       PURGE
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:60000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Expired idempotency keys purged. count={}", purged);
+        }
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private <T> IdempotentResult<T> replay(
+            String idempotencyKey,
+            String requestHash,
+            Class<T> responseType,
+            CompletedKey completed
+    ) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw keyReused(idempotencyKey);
+        }
+        log.info("Replaying order response for idempotency key. key={}", idempotencyKey);
+        return new IdempotentResult<>(responseType.cast(completed.response()), true);
+    }
+
+    private String hash(Class<?> responseType, Object request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(responseType.getName().getBytes(StandardCharsets.UTF_8));
+            byte[] digest = sha256.digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ResponseStatusException keyReused(String idempotencyKey) {
+        return new ResponseStatusException(
+                HttpStatus.UNPROCESSABLE_CONTENT,
+                "Idempotency key already used for a different request: " + idempotencyKey
+        );
+    }
+
+    private static ResponseStatusException inProgress(String idempotencyKey) {
+        return new ResponseStatusException(
+                HttpStatus.CONFLICT,
+                "A request with this idempotency key is still in progress: " + idempotencyKey
+        );
+    }
+
+    private record CompletedKey(String requestHash, Object response) {
+    }
+
+    public record IdempotentResult<T>(T response, boolean replayed) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.order_service.services;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.entity.OrderIntakeEntity;
+import com.example.order_service.models.OrderCommand;
+import com.example.order_service.models.OrderCreateRequest;
+import com.example.order_service.models.OrderIntakeResponse;
+import com.example.order_service.repository.OrderIntakeRepository;
+import com.example.order_service.utils.OrderEventOutbox;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Asynchronous order intake.
+ * <p>
+ * The request thread only validates the order and stores a tracking row plus a
+ * create-order command (through the outbox, in one transaction). Workers
+ * consuming the order command queue then do pricing, persistence and inventory
+ * reduction at their own pace.
+ * <p>
+ * A worker claims a command with a conditional update (ACCEPTED → PROCESSING),
+ * so a redelivered or duplicated command is processed by one worker at a time.
+ * A claim older than {@code order.intake.claim-timeout} counts as abandoned
+ * (its worker died) and can be taken over.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class OrderIntakeService {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 1000;
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final OrderEventOutbox orderEventOutbox;
+    private final Duration claimTimeout;
+
+    public OrderIntakeService(
+            OrderIntakeRepository orderIntakeRepository,
+            OrderService orderService,
+            OrderEventOutbox orderEventOutbox,
+            @Value("${order.intake.claim-timeout:PT5M}") Duration claimTimeout
+    ) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderService = orderService;
+        this.orderEventOutbox = orderEventOutbox;
+        this.claimTimeout = claimTimeout;
+    }
+
+    public enum Claim {
+        CLAIMED,  // This worker processes the command
+        SETTLED,  // Already completed or failed: drop the command
+        BUSY      // Another worker holds a live claim
+    }
+
+    /* =========================
+       ACCEPT
+       ========================= */
+
+    @Transactional
+    public OrderIntakeResponse submit(OrderCreateRequest orderRequest) {
+
+        orderService.validateOrderRequest(orderRequest);
+
+        OrderIntakeEntity intake = orderIntakeRepository.save(
+                OrderIntakeEntity.builder()
+                        .status(OrderIntakeEntity.IntakeStatus.ACCEPTED)
+                        .build()
+        );
+
+        orderEventOutbox.enqueueOrderCommand(
+                new OrderCommand(intake.getTrackingId(), orderRequest)
+        );
+
+        log.info("Order accepted for async processing. trackingId={}", intake.getTrackingId());
+        return mapToResponse(intake);
+    }
+
+    /* =========================
+       WORKER STEPS
+       ========================= */
+
+    /**
+     * Claims the command for processing; only one worker gets {@link Claim#CLAIMED}.
+     */
+    @Transactional
+    public Claim claim(UUID trackingId) {
+        Instant now = Instant.now();
+
+        if (orderIntakeRepository.claim(trackingId, now, now.minus(claimTimeout)) == 1) {
+            return Claim.CLAIMED;
+        }
+
+        OrderIntakeEntity intake = getIntakeEntity(trackingId);
+
+        if (intake.getStatus() == OrderIntakeEntity.IntakeStatus.COMPLETED
+                || intake.getStatus() == OrderIntakeEntity.IntakeStatus.FAILED) {
+            log.info("Order command already settled, skipping. trackingId={}", trackingId);
+            return Claim.SETTLED;
+        }
+
+        return Claim.BUSY;
+    }
+
+    /**
+     * Gives the claim back after a failure worth retrying, so the requeued
+     * command can be claimed again right away.
+     */
+    @Transactional
+    public void unclaim(UUID trackingId) {
+        orderIntakeRepository.unclaim(trackingId, Instant.now());
+    }
+
+    /**
+     * Creates the order and settles the tracking row in the same transaction.
+     */
+    @Transactional
+    public void complete(OrderCommand command) {
+        OrderEntity order = orderService.createOrder(command.getOrder());
+
+        OrderIntakeEntity intake = getIntakeEntity(command.getTrackingId());
+        intake.setStatus(OrderIntakeEntity.IntakeStatus.COMPLETED);
+        intake.setOrderId(order.getId());
+
+        log.info(
+                "Async order completed. trackingId={}, orderId={}",
+                command.getTrackingId(),
+                order.getId()
+        );
+    }
+
+    /**
+     * The order was rejected (invalid, product unavailable, insufficient
+     * stock): final, the client sees the reason when polling.
+     */
+    @Transactional
+    public void fail(UUID trackingId, String reason) {
+        OrderIntakeEntity intake = getIntakeEntity(trackingId);
+        intake.setStatus(OrderIntakeEntity.IntakeStatus.FAILED);
+        intake.setFailureReason(
+                reason != null && reason.length() > MAX_FAILURE_REASON_LENGTH
+                        ? reason.substring(0, MAX_FAILURE_REASON_LENGTH)
+                        : reason
+        );
+
+        log.warn("Async order failed. trackingId={}, reason={}", trackingId, reason);
+    }
+
+    /* =========================
+       READ
+       ========================= */
+
+    public OrderIntakeResponse getIntake(UUID trackingId) {
+        return mapToResponse(getIntakeEntity(trackingId));
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private OrderIntakeEntity getIntakeEntity(UUID trackingId) {
+        return orderIntakeRepository.findById(trackingId)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Order intake not found: " + trackingId)
+                );
+    }
+
+    private OrderIntakeResponse mapToResponse(OrderIntakeEntity intake) {
+        return OrderIntakeResponse.builder()
+                .trackingId(intake.getTrackingId())
+                .status(OrderIntakeResponse.IntakeStatus.valueOf(intake.getStatus().name()))
+                .orderId(intake.getOrderId())
+                .failureReason(intake.getFailureReason())
+                .createdAt(intake.getCreatedAt())
+                .updatedAt(intake.getUpdatedAt())
+                .build();
+    }
+}
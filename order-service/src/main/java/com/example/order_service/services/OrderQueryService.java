@@ -0,0 +1,199 @@
+package com.example.order_service.services;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.OrderLineView;
+import com.example.order_service.models.OrderPageResponse;
+import com.example.order_service.models.OrderResponse;
+import com.example.order_service.models.OrderRowView;
+import com.example.order_service.repository.OrderRepository;
+import com.example.order_service.utils.AnalyticsEmitter;
+import com.example.order_service.utils.OrderCursor;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Order read paths built on DTO projections.
+ * <p>
+ * Every read costs a fixed number of queries regardless of row count: one for
+ * orders joined with their addresses, one per chunk of order ids for line items.
+ * Nothing is loaded as a managed entity, so there are no lazy loads and no
+ * persistence-context growth.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class OrderQueryService {
+
+    // Bounds the IN list of the line-item query
+    private static final int LINE_QUERY_CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final AnalyticsEmitter analyticsEmitter;
+
+    /* =========================
+       SINGLE ORDER
+       ========================= */
+
+    public OrderResponse getOrder(UUID id) {
+        analyticsEmitter.emit(
+                "ORDER_FETCHED",
+                Map.of(
+                        "eventType", "ORDER_FETCHED",
+                        "orderId", id
+                )
+        );
+
+        OrderRowView row = orderRepository.findRowById(id)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Order not found: " + id)
+                );
+
+        return assemble(List.of(row)).get(0);
+    }
+
+    /* =========================
+       LISTINGS
+       ========================= */
+
+    public List<OrderResponse> getOrdersByStatus(OrderEntity.Status status) {
+        return assemble(orderRepository.findRowsByStatus(status));
+    }
+
+    /**
+     * One keyset page ordered by (createdAt, id); {@code cursor} is the last row of
+     * the previous page, or null for the first page.
+     */
+    public OrderPageResponse getOrdersPageByStatus(
+            OrderEntity.Status status,
+            OrderCursor cursor,
+            int limit
+    ) {
+        List<OrderRowView> rows = cursor == null
+                ? orderRepository.findFirstRowPageByStatus(status, Limit.of(limit))
+                : orderRepository.findRowPageByStatusAfter(
+                        status,
+                        cursor.createdAt(),
+                        cursor.id(),
+                        Limit.of(limit)
+                );
+
+        OrderRowView last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+        return OrderPageResponse.builder()
+                .items(assemble(rows))
+                .nextCursor(rows.size() == limit
+                        ? new OrderCursor(last.createdAt(), last.id()).encode()
+                        : null)
+                .build();
+    }
+
+    /**
+     * Streams every order with the given status through a fixed-size fetch window,
+     * loading line items one chunk of orders at a time.
+     */
+    public void forEachOrderByStatus(
+            OrderEntity.Status status,
+            Consumer<OrderResponse> consumer
+    ) {
+        try (Stream<OrderRowView> rows = orderRepository.streamRowsByStatus(status)) {
+            List<OrderRowView> chunk = new ArrayList<>(LINE_QUERY_CHUNK_SIZE);
+            Iterator<OrderRowView> iterator = rows.iterator();
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == LINE_QUERY_CHUNK_SIZE) {
+                    assemble(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                assemble(chunk).forEach(consumer);
+            }
+        }
+    }
+
+    /* =========================
+       ASSEMBLY
+       ========================= */
+
+    private List<OrderResponse> assemble(List<OrderRowView> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<OrderLineView>> linesByOrder = new HashMap<>();
+
+        // Packed orders already carry their lines; only the rest need the line query
+        List<UUID> orderIds = rows.stream()
+                .filter(row -> row.packedLines() == null)
+                .map(OrderRowView::id)
+                .toList();
+
+        for (int from = 0; from < orderIds.size(); from += LINE_QUERY_CHUNK_SIZE) {
+            List<UUID> chunk = orderIds.subList(from, Math.min(from + LINE_QUERY_CHUNK_SIZE, orderIds.size()));
+            orderRepository.findLinesByOrderIds(chunk).forEach(line ->
+                    linesByOrder.computeIfAbsent(line.orderId(), id -> new ArrayList<>()).add(line)
+            );
+        }
+
+        return rows.stream()
+                .map(row -> toResponse(row, linesOf(row, linesByOrder)))
+                .collect(Collectors.toList());
+    }
+
+    private static List<OrderLineView> linesOf(
+            OrderRowView row,
+            Map<UUID, List<OrderLineView>> linesByOrder
+    ) {
+        if (row.packedLines() == null) {
+            return linesByOrder.getOrDefault(row.id(), List.of());
+        }
+
+        return row.packedLines().stream()
+                .map(line -> new OrderLineView(
+                        row.id(), line.getProductId(), line.getQuantity(), line.getUnitPrice()
+                ))
+                .toList();
+    }
+
+    private OrderResponse toResponse(OrderRowView row, List<OrderLineView> lines) {
+        return OrderResponse.builder()
+                .orderId(row.id())
+                .status(OrderResponse.OrderStatus.valueOf(row.status().name()))
+                .paymentStatus(OrderResponse.PaymentStatus.valueOf(row.paymentStatus().name()))
+                .totalAmount(row.total())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .address(row.line1() == null
+                        ? null
+                        : OrderResponse.AddressResponse.builder()
+                                .line1(row.line1())
+                                .line2(row.line2())
+                                .city(row.city())
+                                .state(row.state())
+                                .country(row.country())
+                                .postalCode(row.postalCode())
+                                .build())
+                .products(lines.stream()
+                        .map(line -> OrderResponse.OrderProductResponse.builder()
+                                .productId(line.productId())
+                                .quantity(line.quantity())
+                                .unitPrice(line.unitPrice())
+                                .lineTotal(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
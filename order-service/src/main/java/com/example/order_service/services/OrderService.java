@@ -2,23 +2,31 @@ package com.example.order_service.services;
 
 import com.example.order_service.entity.Address;
 import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.BulkOrderCreateResponse;
+import com.example.order_service.models.BulkStatusUpdateResponse;
 import com.example.order_service.models.InventoryBulkReduceRequest;
 import com.example.order_service.models.InventoryReduceResponse;
+import com.example.order_service.models.InventoryReserveRequest;
 import com.example.order_service.models.OrderCreateRequest;
+import com.example.order_service.models.OrderStatusUpdateRequest;
+import com.example.order_service.models.OrderStatusView;
 import com.example.order_service.models.ProductSnapshot;
 import com.example.order_service.repository.OrderRepository;
-import com.example.order_service.utils.RabbitMQSender;
-import com.example.order_service.utils.RestClient;
+import com.example.order_service.utils.InventoryClient;
+import com.example.order_service.utils.InventoryRejectedException;
+import com.example.order_service.utils.OptimisticLockRetry;
+import com.example.order_service.utils.OrderEventOutbox;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,16 +34,49 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
 
-    private static final String PRODUCT_SERVICE_BASE_URL = "http://localhost:5000";
+    // Bounds the IN lists of bulk status reads and updates
+    private static final int STATUS_CHUNK_SIZE = 1000;
 
     private final OrderRepository orderRepository;
-    private final RestClient restClient;
-    private final RabbitMQSender rabbitMQSender;
-
-    public OrderService(OrderRepository orderRepository, RestClient restClient, RabbitMQSender rabbitMQSender) {
+    private final InventoryClient inventoryClient;
+    private final OrderEventOutbox orderEventOutbox;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final OrderStatistics orderStatistics;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final InventoryMode inventoryMode;
+    private final int maxBulkOrders;
+    private final int maxBulkStatusUpdates;
+
+    public OrderService(
+            OrderRepository orderRepository,
+            InventoryClient inventoryClient,
+            OrderEventOutbox orderEventOutbox,
+            ProductSnapshotCache productSnapshotCache,
+            OrderStatistics orderStatistics,
+            OptimisticLockRetry optimisticLockRetry,
+            @Value("${order.inventory.mode:RESERVE}") InventoryMode inventoryMode,
+            @Value("${order.bulk.max-orders:1000}") int maxBulkOrders,
+            @Value("${order.bulk.max-status-updates:5000}") int maxBulkStatusUpdates
+    ) {
         this.orderRepository = orderRepository;
-        this.restClient = restClient;
-        this.rabbitMQSender = rabbitMQSender;
+        this.inventoryClient = inventoryClient;
+        this.orderEventOutbox = orderEventOutbox;
+        this.productSnapshotCache = productSnapshotCache;
+        this.orderStatistics = orderStatistics;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.inventoryMode = inventoryMode;
+        this.maxBulkOrders = maxBulkOrders;
+        this.maxBulkStatusUpdates = maxBulkStatusUpdates;
+    }
+
+    /**
+     * REDUCE takes stock when the order is created. RESERVE only holds it:
+     * the hold is committed when the order is paid and released when payment
+     * fails, the order is cancelled or the hold expires in product-service.
+     */
+    public enum InventoryMode {
+        REDUCE,
+        RESERVE
     }
 
     /* =========================
@@ -45,15 +86,10 @@ public class OrderService {
     @Transactional
     public OrderEntity createOrder(OrderCreateRequest orderRequest) {
 
-        OrderEntity order = OrderEntity.builder()
-                .address(mapAddress(orderRequest))
-                .products(mapProducts(orderRequest))
-                .build();
-
-        validateOrderStructure(order);
+        OrderEntity order = buildOrder(orderRequest);
 
     /* =========================
-       1️⃣ FETCH PRODUCT DATA
+       1️⃣ FETCH PRODUCT DATA (CACHED)
        ========================= */
 
         List<UUID> productIds = order.getProducts()
@@ -61,27 +97,248 @@ public class OrderService {
                 .map(OrderEntity.OrderProduct::getProductId)
                 .toList();
 
-        ProductSnapshot[] products =
-                restClient.post(
-                        PRODUCT_SERVICE_BASE_URL,
-                        "/api/v1/products/batch",
-                        null,
-                        productIds,
-                        ProductSnapshot[].class
-                );
+        Map<UUID, ProductSnapshot> productMap =
+                productSnapshotCache.getAll(productIds);
 
-        if (products == null || products.length != productIds.size()) {
+        if (productMap.size() != productIds.size()) {
             throw new IllegalStateException("Some products are missing or unavailable");
         }
 
-        Map<UUID, ProductSnapshot> productMap =
-                Arrays.stream(products)
-                        .collect(Collectors.toMap(ProductSnapshot::getProductId, p -> p));
-
     /* =========================
        2️⃣ PRICE CALCULATION
        ========================= */
 
+        priceOrder(order, productMap);
+
+    /* =========================
+       3️⃣ SAVE ORDER
+       ========================= */
+
+        OrderEntity savedOrder = orderRepository.save(order);
+
+    /* =========================
+       4️⃣ HOLD INVENTORY (RESERVE OR REDUCE)
+       ========================= */
+
+        holdInventory(List.of(savedOrder));
+
+        log.info(
+                "Order created successfully. orderId={}, total={}",
+                savedOrder.getId(),
+                savedOrder.getTotal()
+        );
+        enqueueOrderCreatedEvents(savedOrder);
+        orderStatistics.recordCreated(savedOrder);
+
+        return savedOrder;
+    }
+
+    /* =========================
+       BULK CREATE ORDERS
+       ========================= */
+
+    /**
+     * Creates many orders with shared per-batch work instead of per-order round-trips:
+     * one deduplicated product lookup, one batched insert of orders and line items,
+     * one combined inventory hold (falling back to per-order holds only if
+     * product-service explicitly rejected the combined one; a timeout or transport
+     * error fails the batch instead, since the hold may have been applied) and
+     * batched outbox events. In the per-order fallback only explicit rejections
+     * fail an order; an unknown outcome keeps that order (reported {@code UNKNOWN})
+     * and fails the ones not yet held. Invalid orders are
+     * reported per index and never abort the rest of the batch.
+     */
+    @Transactional
+    public BulkOrderCreateResponse createOrdersBulk(List<OrderCreateRequest> orderRequests) {
+
+        if (orderRequests == null || orderRequests.isEmpty()) {
+            throw new IllegalArgumentException("Bulk order request is empty");
+        }
+
+        if (orderRequests.size() > maxBulkOrders) {
+            throw new IllegalArgumentException(
+                    "Bulk order request exceeds limit of " + maxBulkOrders + " orders"
+            );
+        }
+
+        BulkOrderCreateResponse.Result[] results =
+                new BulkOrderCreateResponse.Result[orderRequests.size()];
+        Map<Integer, OrderEntity> candidates = new LinkedHashMap<>();
+        // Saved orders whose per-order hold had an unknown outcome: kept, never deleted
+        Map<Integer, OrderEntity> holdUnknown = new LinkedHashMap<>();
+
+    /* =========================
+       1️⃣ VALIDATE EACH ORDER
+       ========================= */
+
+        for (int i = 0; i < orderRequests.size(); i++) {
+            try {
+                candidates.put(i, buildOrder(orderRequests.get(i)));
+            } catch (RuntimeException ex) {
+                results[i] = BulkOrderCreateResponse.Result.failed(i, ex.getMessage());
+            }
+        }
+
+    /* =========================
+       2️⃣ ONE DEDUPLICATED PRODUCT LOOKUP
+       ========================= */
+
+        Set<UUID> productIds = candidates.values().stream()
+                .flatMap(order -> order.getProducts().stream())
+                .map(OrderEntity.OrderProduct::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<UUID, ProductSnapshot> productMap;
+        try {
+            productMap = productIds.isEmpty()
+                    ? Map.of()
+                    : productSnapshotCache.getAll(productIds);
+        } catch (RuntimeException ex) {
+            log.warn("Bulk product lookup failed, rejecting batch: {}", ex.getMessage());
+            candidates.keySet().forEach(i ->
+                    results[i] = BulkOrderCreateResponse.Result.failed(i, "Product lookup failed: " + ex.getMessage())
+            );
+            candidates.clear();
+            productMap = Map.of();
+        }
+
+    /* =========================
+       3️⃣ PRICE EACH ORDER
+       ========================= */
+
+        Iterator<Map.Entry<Integer, OrderEntity>> pricing = candidates.entrySet().iterator();
+        while (pricing.hasNext()) {
+            Map.Entry<Integer, OrderEntity> candidate = pricing.next();
+            try {
+                priceOrder(candidate.getValue(), productMap);
+            } catch (RuntimeException ex) {
+                results[candidate.getKey()] =
+                        BulkOrderCreateResponse.Result.failed(candidate.getKey(), ex.getMessage());
+                pricing.remove();
+            }
+        }
+
+    /* =========================
+       4️⃣ BATCHED INSERTS (reservations are keyed by order id)
+       ========================= */
+
+        orderRepository.saveAll(candidates.values());
+
+    /* =========================
+       5️⃣ ONE COMBINED INVENTORY HOLD
+       ========================= */
+
+        if (!candidates.isEmpty()) {
+            try {
+                holdInventory(candidates.values());
+            } catch (InventoryRejectedException combinedFailure) {
+                // Explicit rejection: nothing was applied, so per-order holds can't double up
+                log.warn(
+                        "Combined inventory hold rejected, retrying per order: {}",
+                        combinedFailure.getMessage()
+                );
+                List<OrderEntity> rejected = new ArrayList<>();
+                Iterator<Map.Entry<Integer, OrderEntity>> holding = candidates.entrySet().iterator();
+                while (holding.hasNext()) {
+                    Map.Entry<Integer, OrderEntity> candidate = holding.next();
+                    try {
+                        holdInventory(List.of(candidate.getValue()));
+                    } catch (InventoryRejectedException ex) {
+                        results[candidate.getKey()] =
+                                BulkOrderCreateResponse.Result.failed(candidate.getKey(), ex.getMessage());
+                        rejected.add(candidate.getValue());
+                        holding.remove();
+                    } catch (RuntimeException unknownOutcome) {
+                        // This order's hold may have landed: keep its row (reported UNKNOWN),
+                        // stop the fallback and fail the orders not yet held
+                        log.warn(
+                                "Per-order inventory hold failed with unknown outcome, stopping fallback. orderId={}: {}",
+                                candidate.getValue().getId(),
+                                unknownOutcome.getMessage()
+                        );
+                        OrderEntity kept = candidate.getValue();
+                        holdUnknown.put(candidate.getKey(), kept);
+                        results[candidate.getKey()] = BulkOrderCreateResponse.Result.unknown(
+                                candidate.getKey(),
+                                kept.getId(),
+                                kept.getTotal(),
+                                "Inventory outcome unknown: " + unknownOutcome.getMessage()
+                        );
+                        holding.remove();
+                        while (holding.hasNext()) {
+                            Map.Entry<Integer, OrderEntity> notHeld = holding.next();
+                            results[notHeld.getKey()] = BulkOrderCreateResponse.Result.failed(
+                                    notHeld.getKey(), "Inventory unavailable: " + unknownOutcome.getMessage()
+                            );
+                            rejected.add(notHeld.getValue());
+                            holding.remove();
+                        }
+                    }
+                }
+                orderRepository.deleteAll(rejected);
+            } catch (RuntimeException unknownOutcome) {
+                // Timeout or transport error: the combined hold may have been applied, so
+                // don't repeat it per order. In RESERVE mode a hold that did land expires
+                // unpaid; in REDUCE mode that stock is taken and needs manual correction
+                log.warn(
+                        "Combined inventory hold failed with unknown outcome, rejecting batch: {}",
+                        unknownOutcome.getMessage()
+                );
+                candidates.keySet().forEach(i ->
+                        results[i] = BulkOrderCreateResponse.Result.failed(
+                                i, "Inventory unavailable: " + unknownOutcome.getMessage()
+                        )
+                );
+                orderRepository.deleteAll(candidates.values());
+                candidates.clear();
+            }
+        }
+
+    /* =========================
+       6️⃣ EVENTS
+       ========================= */
+
+        // Kept orders exist like any other, so they get their events too
+        holdUnknown.values().forEach(savedOrder -> {
+            enqueueOrderCreatedEvents(savedOrder);
+            orderStatistics.recordCreated(savedOrder);
+        });
+
+        for (Map.Entry<Integer, OrderEntity> candidate : candidates.entrySet()) {
+            OrderEntity savedOrder = candidate.getValue();
+            enqueueOrderCreatedEvents(savedOrder);
+            orderStatistics.recordCreated(savedOrder);
+            results[candidate.getKey()] = BulkOrderCreateResponse.Result.created(
+                    candidate.getKey(),
+                    savedOrder.getId(),
+                    savedOrder.getTotal()
+            );
+        }
+
+        log.info(
+                "Bulk order creation completed. requested={}, created={}, unknown={}",
+                orderRequests.size(),
+                candidates.size(),
+                holdUnknown.size()
+        );
+
+        return BulkOrderCreateResponse.builder()
+                .created(candidates.size())
+                .unknown(holdUnknown.size())
+                .failed(orderRequests.size() - candidates.size() - holdUnknown.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /* =========================
+       CREATE HELPERS
+       ========================= */
+
+    /**
+     * Applies current prices, total and initial statuses to a validated order.
+     */
+    private void priceOrder(OrderEntity order, Map<UUID, ProductSnapshot> productMap) {
+
         BigDecimal total = BigDecimal.ZERO;
 
         for (OrderEntity.OrderProduct orderProduct : order.getProducts()) {
@@ -109,49 +366,82 @@ public class OrderService {
             total = total.add(lineTotal);
         }
 
-    /* =========================
-       3️⃣ FINALIZE & SAVE ORDER
-       ========================= */
-
         order.setTotal(total);
         order.setStatus(OrderEntity.Status.CONFIRMED);
         order.setPaymentStatus(OrderEntity.PaymentStatus.PENDING);
+    }
 
-        OrderEntity savedOrder = orderRepository.save(order);
+    /**
+     * Takes (REDUCE) or holds (RESERVE) stock for all given orders in one call.
+     */
+    private void holdInventory(Collection<OrderEntity> orders) {
+        switch (inventoryMode) {
+            case REDUCE -> reduceInventory(orders);
+            case RESERVE -> reserveInventory(orders);
+        }
+    }
 
-    /* =========================
-       4️⃣ REDUCE INVENTORY (BULK)
-       ========================= */
+    /**
+     * One hold per order (product-service needs the order id to commit or
+     * release it later), all in one all-or-nothing call.
+     */
+    private void reserveInventory(Collection<OrderEntity> orders) {
+
+        List<InventoryReserveRequest.Reservation> reservations = new ArrayList<>();
+        for (OrderEntity order : orders) {
+            Map<UUID, Integer> quantities = new LinkedHashMap<>();
+            for (OrderEntity.OrderProduct p : order.getProducts()) {
+                quantities.merge(p.getProductId(), p.getQuantity(), Integer::sum);
+            }
+
+            reservations.add(new InventoryReserveRequest.Reservation(
+                    order.getId(),
+                    quantities.entrySet().stream()
+                            .map(e -> new InventoryBulkReduceRequest.Item(e.getKey(), e.getValue()))
+                            .toList()
+            ));
+        }
+
+        InventoryReduceResponse response =
+                inventoryClient.reserve(new InventoryReserveRequest(reservations));
+
+        if (response == null || !"SUCCESS".equals(response.getStatus())) {
+            throw new IllegalStateException("Inventory reservation failed for " + orders.size() + " order(s)");
+        }
+    }
+
+    /**
+     * Reduces stock for all given orders in one call, summing quantities per product.
+     */
+    private void reduceInventory(Collection<OrderEntity> orders) {
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderEntity order : orders) {
+            for (OrderEntity.OrderProduct p : order.getProducts()) {
+                quantities.merge(p.getProductId(), p.getQuantity(), Integer::sum);
+            }
+        }
 
         InventoryBulkReduceRequest inventoryRequest =
                 new InventoryBulkReduceRequest(
-                        order.getProducts().stream()
-                                .map(p -> new InventoryBulkReduceRequest.Item(
-                                        p.getProductId(),
-                                        p.getQuantity()
+                        quantities.entrySet().stream()
+                                .map(e -> new InventoryBulkReduceRequest.Item(
+                                        e.getKey(),
+                                        e.getValue()
                                 ))
                                 .toList()
                 );
 
         InventoryReduceResponse response =
-                restClient.post(
-                        PRODUCT_SERVICE_BASE_URL,
-                        "/api/v1/products/reduce",
-                        null,
-                        inventoryRequest,
-                        InventoryReduceResponse.class
-                );
+                inventoryClient.reduce(inventoryRequest);
 
         if (response == null || !"SUCCESS".equals(response.getStatus())) {
-            throw new IllegalStateException("Inventory reduction failed for order " + savedOrder.getId());
+            throw new IllegalStateException("Inventory reduction failed for products " + quantities.keySet());
         }
+    }
 
-        log.info(
-                "Order created successfully. orderId={}, total={}",
-                savedOrder.getId(),
-                total
-        );
-        rabbitMQSender.sendOrderStatusEvent(
+    private void enqueueOrderCreatedEvents(OrderEntity savedOrder) {
+        orderEventOutbox.enqueueOrderStatusEvent(
                 "confirmed",
                 Map.of(
                         "orderId", savedOrder.getId(),
@@ -160,25 +450,37 @@ public class OrderService {
                         "timestamp", System.currentTimeMillis()
                 )
         );
-        rabbitMQSender.sendOrderAnalyticsEvent(
+        orderEventOutbox.enqueueOrderAnalyticsEvent(
                 Map.of(
                         "eventType", "ORDER_CREATED",
                         "orderId", savedOrder.getId(),
                         "total", savedOrder.getTotal()
                 )
         );
-
-        return savedOrder;
     }
 
     /* =========================
        PAYMENT STATUS UPDATE
        ========================= */
 
-    @Transactional
+    /**
+     * Optimistically locked; retried with jitter on a concurrent update, each
+     * attempt in its own transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderEntity updatePaymentStatus(
             UUID orderId,
             OrderEntity.PaymentStatus newPaymentStatus
+    ) {
+        return optimisticLockRetry.execute(
+                "updatePaymentStatus",
+                () -> applyPaymentStatus(orderId, newPaymentStatus)
+        );
+    }
+
+    private OrderEntity applyPaymentStatus(
+            UUID orderId,
+            OrderEntity.PaymentStatus newPaymentStatus
     ) {
         OrderEntity order = orderRepository.findById(orderId)
                 .orElseThrow(() ->
@@ -192,8 +494,15 @@ public class OrderService {
             );
         }
 
+        orderStatistics.recordPaymentStatusChange(order.getPaymentStatus(), newPaymentStatus);
         order.setPaymentStatus(newPaymentStatus);
-        rabbitMQSender.sendPaymentStatusEvent(
+
+        if (newPaymentStatus == OrderEntity.PaymentStatus.PAID) {
+            commitReservation(order);
+        } else if (newPaymentStatus == OrderEntity.PaymentStatus.FAILED) {
+            releaseReservation(orderId);
+        }
+        orderEventOutbox.enqueuePaymentStatusEvent(
                 newPaymentStatus.name(),
                 Map.of(
                         "orderId", orderId,
@@ -201,7 +510,7 @@ public class OrderService {
                         "timestamp", System.currentTimeMillis()
                 )
         );
-        rabbitMQSender.sendOrderAnalyticsEvent(
+        orderEventOutbox.enqueueOrderAnalyticsEvent(
                 Map.of(
                         "eventType", "PAYMENT_STATUS_UPDATED",
                         "orderId", orderId,
@@ -232,10 +541,24 @@ public class OrderService {
        ORDER STATUS UPDATE
        ========================= */
 
-    @Transactional
+    /**
+     * Optimistically locked; retried with jitter on a concurrent update, each
+     * attempt in its own transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderEntity updateOrderStatus(
             UUID orderId,
             OrderEntity.Status newStatus
+    ) {
+        return optimisticLockRetry.execute(
+                "updateOrderStatus",
+                () -> applyOrderStatus(orderId, newStatus)
+        );
+    }
+
+    private OrderEntity applyOrderStatus(
+            UUID orderId,
+            OrderEntity.Status newStatus
     ) {
         OrderEntity order = orderRepository.findById(orderId)
                 .orElseThrow(() ->
@@ -249,8 +572,147 @@ public class OrderService {
             );
         }
 
+        orderStatistics.recordStatusChange(order.getStatus(), newStatus);
         order.setStatus(newStatus);
-        rabbitMQSender.sendOrderStatusEvent(
+        enqueueOrderStatusEvents(orderId, newStatus);
+
+        if (newStatus == OrderEntity.Status.CANCELLED) {
+            releaseReservation(orderId);
+        }
+
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Applies many status transitions with set-based work: current statuses are read
+     * in chunks, transitions are validated in memory, and valid ones are applied as
+     * one JDBC batch per (from, to) pair and chunk of UPDATEs pinned on the status and
+     * version that were read, so an order counts as updated only if its own row
+     * changed. Events go through the
+     * outbox, whose inserts are JDBC-batched and published in batches by the relay.
+     * Invalid items are reported per index and never abort the rest of the batch.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updateOrderStatusesBulk(
+            List<OrderStatusUpdateRequest> updates
+    ) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("Bulk status update request is empty");
+        }
+
+        if (updates.size() > maxBulkStatusUpdates) {
+            throw new IllegalArgumentException(
+                    "Bulk status update request exceeds limit of " + maxBulkStatusUpdates + " orders"
+            );
+        }
+
+        BulkStatusUpdateResponse.Result[] results =
+                new BulkStatusUpdateResponse.Result[updates.size()];
+        Map<UUID, Integer> indexByOrder = new LinkedHashMap<>();
+
+    /* =========================
+       1️⃣ SHAPE CHECKS
+       ========================= */
+
+        for (int i = 0; i < updates.size(); i++) {
+            OrderStatusUpdateRequest update = updates.get(i);
+
+            if (update == null || update.getOrderId() == null || update.getStatus() == null) {
+                results[i] = BulkStatusUpdateResponse.Result.failed(
+                        i, update == null ? null : update.getOrderId(), "orderId and status are required"
+                );
+            } else if (indexByOrder.putIfAbsent(update.getOrderId(), i) != null) {
+                results[i] = BulkStatusUpdateResponse.Result.failed(
+                        i, update.getOrderId(), "Duplicate orderId in request"
+                );
+            }
+        }
+
+    /* =========================
+       2️⃣ CHUNKED STATUS LOAD
+       ========================= */
+
+        Map<UUID, OrderStatusView> currentStatuses = new HashMap<>();
+        forEachChunk(indexByOrder.keySet(), chunk ->
+                orderRepository.findStatusesByIdIn(chunk)
+                        .forEach(view -> currentStatuses.put(view.id(), view))
+        );
+
+    /* =========================
+       3️⃣ IN-MEMORY VALIDATION
+       ========================= */
+
+        // (from, to) -> orders as read, so each transition is one batch of pinned UPDATEs
+        Map<Map.Entry<OrderEntity.Status, OrderEntity.Status>, List<OrderStatusView>> transitions =
+                new LinkedHashMap<>();
+
+        indexByOrder.forEach((orderId, index) -> {
+            OrderStatusView view = currentStatuses.get(orderId);
+            OrderEntity.Status current = view == null ? null : view.status();
+            OrderEntity.Status next = updates.get(index).getStatus();
+
+            if (current == null) {
+                results[index] = BulkStatusUpdateResponse.Result.failed(
+                        index, orderId, "Order not found: " + orderId
+                );
+            } else if (!isValidOrderTransition(current, next)) {
+                results[index] = BulkStatusUpdateResponse.Result.failed(
+                        index, orderId, "Invalid order status transition from " + current + " to " + next
+                );
+            } else {
+                transitions.computeIfAbsent(Map.entry(current, next), key -> new ArrayList<>())
+                        .add(view);
+            }
+        });
+
+    /* =========================
+       4️⃣ SET-BASED UPDATES + EVENTS
+       ========================= */
+
+        Instant now = Instant.now();
+
+        transitions.forEach((transition, views) ->
+                forEachChunk(views, chunk -> {
+                    int[] changed = orderRepository.updateStatusIfUnchanged(chunk, transition.getValue(), now);
+
+                    // Rows written since step 2 (version moved) are left alone and reported
+                    for (int i = 0; i < chunk.size(); i++) {
+                        UUID orderId = chunk.get(i).id();
+                        int index = indexByOrder.get(orderId);
+                        if (changed[i] == 1) {
+                            results[index] = BulkStatusUpdateResponse.Result.updated(
+                                    index, orderId, transition.getKey(), transition.getValue()
+                            );
+                            enqueueOrderStatusEvents(orderId, transition.getValue());
+                            orderStatistics.recordStatusChange(transition.getKey(), transition.getValue());
+                            if (transition.getValue() == OrderEntity.Status.CANCELLED) {
+                                releaseReservation(orderId);
+                            }
+                        } else {
+                            results[index] = BulkStatusUpdateResponse.Result.failed(
+                                    index, orderId, "Order status changed concurrently"
+                            );
+                        }
+                    }
+                })
+        );
+
+        List<BulkStatusUpdateResponse.Result> resultList = Arrays.asList(results);
+        int updated = (int) resultList.stream()
+                .filter(result -> result.getStatus() == BulkStatusUpdateResponse.ResultStatus.UPDATED)
+                .count();
+
+        log.info("Bulk status update processed. updated={}, failed={}", updated, updates.size() - updated);
+
+        return BulkStatusUpdateResponse.builder()
+                .updated(updated)
+                .failed(updates.size() - updated)
+                .results(resultList)
+                .build();
+    }
+
+    private void enqueueOrderStatusEvents(UUID orderId, OrderEntity.Status newStatus) {
+        orderEventOutbox.enqueueOrderStatusEvent(
                 newStatus.name(),
                 Map.of(
                         "orderId", orderId,
@@ -258,17 +720,98 @@ public class OrderService {
                         "timestamp", System.currentTimeMillis()
                 )
         );
-        rabbitMQSender.sendOrderAnalyticsEvent(
+        orderEventOutbox.enqueueOrderAnalyticsEvent(
                 Map.of(
                         "eventType", "ORDER_STATUS_UPDATED",
                         "orderId", orderId,
                         "status", newStatus
                 )
         );
+    }
+
+    /* =========================
+       RESERVATION FOLLOW-UP
+       ========================= */
+
+    // Through the outbox: the hold only ends if the status change commits.
+    // Both are no-ops in product-service once the hold has ended.
+
+    private void commitReservation(OrderEntity order) {
+        if (inventoryMode == InventoryMode.RESERVE) {
+            orderEventOutbox.enqueueReservationCommit(order.getId(), order.getProducts());
+        }
+    }
+
+    private void releaseReservation(UUID orderId) {
+        if (inventoryMode == InventoryMode.RESERVE) {
+            orderEventOutbox.enqueueReservationRelease(orderId);
+        }
+    }
+
+    /**
+     * product-service could not turn a paid order's hold into a sale (the hold
+     * had expired and the stock is gone). The order can't be fulfilled, so it
+     * is cancelled and its payment refunded; an order that moved on meanwhile
+     * is only logged.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleReservationCommitFailure(UUID orderId, String reason) {
+        optimisticLockRetry.execute(
+                "handleReservationCommitFailure",
+                () -> applyReservationCommitFailure(orderId, reason)
+        );
+    }
+
+    private OrderEntity applyReservationCommitFailure(UUID orderId, String reason) {
+        OrderEntity order = orderRepository.findById(orderId)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Order not found: " + orderId)
+                );
+
+        if (order.getStatus() != OrderEntity.Status.CONFIRMED
+                || order.getPaymentStatus() != OrderEntity.PaymentStatus.PAID) {
+            log.error("Inventory commit failed for an order that can't be cancelled, needs manual follow-up. "
+                    + "orderId={}, status={}, paymentStatus={}, reason={}",
+                    orderId, order.getStatus(), order.getPaymentStatus(), reason);
+            return order;
+        }
+
+        orderStatistics.recordStatusChange(order.getStatus(), OrderEntity.Status.CANCELLED);
+        orderStatistics.recordPaymentStatusChange(order.getPaymentStatus(), OrderEntity.PaymentStatus.REFUNDED);
+        order.setStatus(OrderEntity.Status.CANCELLED);
+        order.setPaymentStatus(OrderEntity.PaymentStatus.REFUNDED);
+
+        // No release: there is no hold left to end
+        enqueueOrderStatusEvents(orderId, OrderEntity.Status.CANCELLED);
+        orderEventOutbox.enqueuePaymentStatusEvent(
+                OrderEntity.PaymentStatus.REFUNDED.name(),
+                Map.of(
+                        "orderId", orderId,
+                        "paymentStatus", OrderEntity.PaymentStatus.REFUNDED,
+                        "timestamp", System.currentTimeMillis()
+                )
+        );
+        orderEventOutbox.enqueueOrderAnalyticsEvent(
+                Map.of(
+                        "eventType", "INVENTORY_COMMIT_FAILED",
+                        "orderId", orderId,
+                        "reason", reason
+                )
+        );
+
+        log.warn("Paid order cancelled and refunded, inventory commit failed. orderId={}, reason={}",
+                orderId, reason);
 
         return orderRepository.save(order);
     }
 
+    private static <T> void forEachChunk(Collection<T> items, Consumer<List<T>> action) {
+        List<T> all = new ArrayList<>(items);
+        for (int from = 0; from < all.size(); from += STATUS_CHUNK_SIZE) {
+            action.accept(all.subList(from, Math.min(from + STATUS_CHUNK_SIZE, all.size())));
+        }
+    }
+
     private boolean isValidOrderTransition(
             OrderEntity.Status current,
             OrderEntity.Status next
@@ -285,22 +828,7 @@ public class OrderService {
        READ OPERATIONS
        ========================= */
 
-    public OrderEntity getOrderById(UUID id) {
-        rabbitMQSender.sendOrderAnalyticsEvent(
-                Map.of(
-                        "eventType", "ORDER_FETCHED",
-                        "orderId", id
-                )
-        );
-        return orderRepository.findById(id)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Order not found: " + id)
-                );
-    }
-
-    public List<OrderEntity> getOrdersByStatus(OrderEntity.Status status) {
-        return orderRepository.findByStatus(status);
-    }
+    // Response-shaped reads live in OrderQueryService (projections, no N+1)
 
     public List<OrderEntity> getOrdersByPaymentStatus(
             OrderEntity.PaymentStatus paymentStatus
@@ -312,6 +840,27 @@ public class OrderService {
        VALIDATION
        ========================= */
 
+    /**
+     * Structural checks only (no remote calls), used before accepting an order asynchronously.
+     */
+    public void validateOrderRequest(OrderCreateRequest orderRequest) {
+        buildOrder(orderRequest);
+    }
+
+    private OrderEntity buildOrder(OrderCreateRequest orderRequest) {
+        if (orderRequest == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+
+        OrderEntity order = OrderEntity.builder()
+                .address(mapAddress(orderRequest))
+                .products(mapProducts(orderRequest))
+                .build();
+
+        validateOrderStructure(order);
+        return order;
+    }
+
     private void validateOrderStructure(OrderEntity order) {
 
         if (order == null) {
@@ -352,6 +901,10 @@ public class OrderService {
 
     private Address mapAddress(OrderCreateRequest request) {
         OrderCreateRequest.AddressRequest a = request.getAddress();
+        if (a == null) {
+            return null;
+        }
+
         return Address.builder()
                 .line1(a.getLine1())
                 .line2(a.getLine2())
@@ -365,6 +918,10 @@ public class OrderService {
     private List<OrderEntity.OrderProduct> mapProducts(
             OrderCreateRequest request
     ) {
+        if (request.getProducts() == null) {
+            return new ArrayList<>();
+        }
+
         return request.getProducts().stream()
                 .map(p -> OrderEntity.OrderProduct.builder()
                         .productId(p.getProductId())
@@ -0,0 +1,190 @@
+package com.example.order_service.services;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.models.OrderStatsResponse;
+import com.example.order_service.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory order statistics read model.
+ * <p>
+ * - Counters per {@link OrderEntity.Status} and {@link OrderEntity.PaymentStatus}
+ *   as striped {@link LongAdder}s, so concurrent writers do not contend
+ * - Booked revenue per creation hour, in cents, for the last {@code revenue-window}
+ * - Changes are applied after the surrounding transaction commits, so rolled back
+ *   work never shows up
+ * - Rebuilt from the orders table once at startup, before the web server and
+ *   listeners start; reads never touch the database afterwards
+ */
+@Component
+@Slf4j
+public class OrderStatistics implements SmartInitializingSingleton {
+
+    private static final long HOUR_SECONDS = 3600;
+
+    private final OrderRepository orderRepository;
+    private final Duration revenueWindow;
+
+    private final Map<OrderEntity.Status, LongAdder> byStatus =
+            new EnumMap<>(OrderEntity.Status.class);
+    private final Map<OrderEntity.PaymentStatus, LongAdder> byPaymentStatus =
+            new EnumMap<>(OrderEntity.PaymentStatus.class);
+
+    // Epoch hour -> revenue in cents
+    private final Map<Long, LongAdder> revenueCentsByHour = new ConcurrentHashMap<>();
+
+    public OrderStatistics(
+            OrderRepository orderRepository,
+            @Value("${order.stats.revenue-window:PT168H}") Duration revenueWindow
+    ) {
+        this.orderRepository = orderRepository;
+        this.revenueWindow = revenueWindow;
+
+        // Enum maps are only populated here, so concurrent reads are safe
+        for (OrderEntity.Status status : OrderEntity.Status.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        for (OrderEntity.PaymentStatus paymentStatus : OrderEntity.PaymentStatus.values()) {
+            byPaymentStatus.put(paymentStatus, new LongAdder());
+        }
+    }
+
+    /* =========================
+       STARTUP REBUILD
+       ========================= */
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        orderRepository.countByStatus().forEach(row ->
+                byStatus.get(row.status()).add(row.count())
+        );
+        orderRepository.countByPaymentStatus().forEach(row ->
+                byPaymentStatus.get(row.paymentStatus()).add(row.count())
+        );
+        orderRepository.sumRevenueByHourSince(Instant.now().minus(revenueWindow)).forEach(row ->
+                revenueCentsByHour
+                        .computeIfAbsent(row.epochHour(), hour -> new LongAdder())
+                        .add(toCents(row.revenue()))
+        );
+
+        log.info("Order statistics rebuilt. orders={}", totalOrders());
+    }
+
+    /* =========================
+       UPDATES (after commit)
+       ========================= */
+
+    public void recordCreated(OrderEntity order) {
+        OrderEntity.Status status = order.getStatus();
+        OrderEntity.PaymentStatus paymentStatus = order.getPaymentStatus();
+        Instant createdAt = order.getCreatedAt();
+        BigDecimal total = order.getTotal();
+
+        afterCommit(() -> {
+            byStatus.get(status).increment();
+            byPaymentStatus.get(paymentStatus).increment();
+            addRevenue(createdAt, total);
+        });
+    }
+
+    public void recordStatusChange(OrderEntity.Status from, OrderEntity.Status to) {
+        afterCommit(() -> {
+            byStatus.get(from).decrement();
+            byStatus.get(to).increment();
+        });
+    }
+
+    public void recordPaymentStatusChange(
+            OrderEntity.PaymentStatus from,
+            OrderEntity.PaymentStatus to
+    ) {
+        afterCommit(() -> {
+            byPaymentStatus.get(from).decrement();
+            byPaymentStatus.get(to).increment();
+        });
+    }
+
+    /* =========================
+       READ
+       ========================= */
+
+    public OrderStatsResponse snapshot() {
+        Map<OrderEntity.Status, Long> statusCounts = new EnumMap<>(OrderEntity.Status.class);
+        byStatus.forEach((status, count) -> statusCounts.put(status, count.sum()));
+
+        Map<OrderEntity.PaymentStatus, Long> paymentCounts =
+                new EnumMap<>(OrderEntity.PaymentStatus.class);
+        byPaymentStatus.forEach((status, count) -> paymentCounts.put(status, count.sum()));
+
+        long oldestHour = epochHour(Instant.now().minus(revenueWindow));
+        revenueCentsByHour.keySet().removeIf(hour -> hour < oldestHour);
+
+        Map<Instant, BigDecimal> revenue = new TreeMap<>();
+        revenueCentsByHour.forEach((hour, cents) -> revenue.put(
+                Instant.ofEpochSecond(hour * HOUR_SECONDS),
+                BigDecimal.valueOf(cents.sum(), 2)
+        ));
+
+        return OrderStatsResponse.builder()
+                .totalOrders(totalOrders())
+                .byStatus(statusCounts)
+                .byPaymentStatus(paymentCounts)
+                .revenueByHour(revenue)
+                .build();
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private long totalOrders() {
+        return byStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private void addRevenue(Instant createdAt, BigDecimal total) {
+        if (createdAt == null || total == null) {
+            return;
+        }
+        revenueCentsByHour
+                .computeIfAbsent(epochHour(createdAt), hour -> new LongAdder())
+                .add(toCents(total));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long epochHour(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS).getEpochSecond() / HOUR_SECONDS;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
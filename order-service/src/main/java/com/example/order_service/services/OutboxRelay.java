@@ -0,0 +1,214 @@
+package com.example.order_service.services;
+
+import com.example.order_service.entity.OutboxEventEntity;
+import com.example.order_service.repository.OutboxEventRepository;
+import com.example.order_service.utils.RabbitMQSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the order outbox to RabbitMQ.
+ * <p>
+ * Each round claims the oldest pending events with a lease ({@code order.outbox.lease},
+ * a conditional UPDATE stamping a claim token), so several instances can relay
+ * the same table without publishing a row twice; a crashed round's rows are
+ * picked up again once its lease runs out. The claimed batch is published with
+ * publisher confirms pipelined on the channel, then the confirms are awaited once.
+ * <p>
+ * - confirmed: row deleted
+ * - refused (nacked, returned unroutable on a mandatory publish, or not
+ *   publishable): attempt counted, retried after {@code order.outbox.retry-delay};
+ *   after {@code order.outbox.max-attempts} the row is parked as DEAD
+ * - not sent (broker unreachable) or no confirm in time: claim released, retried
+ *   next round without counting an attempt, so an outage doesn't park healthy events
+ * <p>
+ * Delivery is at-least-once. Order is by id within one instance; with several
+ * instances, concurrent rounds may publish interleaved.
+ * <p>
+ * Metrics:
+ * - {@code order.outbox.dead}: events parked as DEAD
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitMQSender rabbitMQSender;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+    private final Counter deadEvents;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            RabbitMQSender rabbitMQSender,
+            MeterRegistry meterRegistry,
+            @Value("${order.outbox.batch-size:200}") int batchSize,
+            @Value("${order.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+            // Must outlast publishing a batch plus the confirm timeout
+            @Value("${order.outbox.lease:PT30S}") Duration lease,
+            @Value("${order.outbox.retry-delay:PT5S}") Duration retryDelay,
+            @Value("${order.outbox.max-attempts:10}") int maxAttempts
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitMQSender = rabbitMQSender;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.lease = lease;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+        this.deadEvents = meterRegistry.counter("order.outbox.dead");
+    }
+
+    /* =========================
+       SCHEDULED DRAIN
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:200}")
+    public void relay() {
+        // Keep draining while full batches are confirmed, so bursts don't wait for the next tick
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox batch fully relayed, continuing");
+        }
+    }
+
+    /**
+     * Claims and publishes one batch and returns how many events were confirmed.
+     */
+    int relayBatch() {
+
+    /* =========================
+       1️⃣ CLAIM (LEASE)
+       ========================= */
+
+        Instant now = Instant.now();
+        List<Long> claimable =
+                outboxEventRepository.findClaimableIds(now, PageRequest.of(0, batchSize));
+
+        if (claimable.isEmpty()) {
+            return 0;
+        }
+
+        UUID claimToken = UUID.randomUUID();
+        outboxEventRepository.claim(claimable, claimToken, now, now.plus(lease));
+
+        // Rows another instance claimed in between are simply not ours
+        List<OutboxEventEntity> batch = outboxEventRepository.findByClaimTokenOrderById(claimToken);
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+    /* =========================
+       2️⃣ PUBLISH (PIPELINED)
+       ========================= */
+
+        List<OutboxEventEntity> sent = new ArrayList<>(batch.size());
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        List<Long> refused = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEventEntity event = batch.get(i);
+            try {
+                correlations.add(
+                        rabbitMQSender.publish(
+                                event.getExchange(),
+                                event.getRoutingKey(),
+                                event.getPayload(),
+                                event.getContentType()
+                        )
+                );
+                sent.add(event);
+            } catch (AmqpException ex) {
+                // Broker unreachable: nothing after this gets through either
+                log.warn("Outbox publish failed, retrying next round. eventId={}", event.getId(), ex);
+                batch.subList(i, batch.size()).forEach(unsent -> released.add(unsent.getId()));
+                break;
+            } catch (Exception ex) {
+                log.warn("Outbox event could not be published. eventId={}", event.getId(), ex);
+                refused.add(event.getId());
+            }
+        }
+
+    /* =========================
+       3️⃣ AWAIT CONFIRMS
+       ========================= */
+
+        List<Long> confirmed = new ArrayList<>(sent.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+
+        for (int i = 0; i < sent.size(); i++) {
+            Long eventId = sent.get(i).getId();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm =
+                        correlations.get(i).getFuture().get(remaining, TimeUnit.NANOSECONDS);
+
+                ReturnedMessage returned = correlations.get(i).getReturned();
+
+                if (!confirm.ack()) {
+                    log.warn("Outbox event nacked. eventId={}, reason={}", eventId, confirm.reason());
+                    refused.add(eventId);
+                } else if (returned != null) {
+                    // Acked but routed nowhere: the broker dropped it, keep the row
+                    log.warn("Outbox event returned unroutable. eventId={}, exchange={}, routingKey={}, reply={}",
+                            eventId, returned.getExchange(), returned.getRoutingKey(), returned.getReplyText());
+                    refused.add(eventId);
+                } else {
+                    confirmed.add(eventId);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                released.add(eventId);
+            } catch (Exception ex) {
+                log.warn("Outbox confirm not received. eventId={}", eventId);
+                released.add(eventId);
+            }
+        }
+
+    /* =========================
+       4️⃣ SETTLE OUTBOX ROWS
+       ========================= */
+
+        if (!confirmed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(confirmed);
+        }
+
+        if (!refused.isEmpty()) {
+            outboxEventRepository.recordRefused(refused, claimToken, Instant.now().plus(retryDelay));
+
+            int dead = outboxEventRepository.markDead(refused, maxAttempts);
+            if (dead > 0) {
+                deadEvents.increment(dead);
+                log.error("Outbox events parked as DEAD after {} refused publishes. count={}", maxAttempts, dead);
+            }
+        }
+
+        if (!released.isEmpty()) {
+            outboxEventRepository.release(released, claimToken);
+        }
+
+        log.debug("Outbox batch relayed. confirmed={}, refused={}, released={}",
+                confirmed.size(), refused.size(), released.size());
+
+        return confirmed.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.order_service.services;
+
+import com.example.order_service.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+
+import java.util.UUID;
+
+/**
+ * Keeps {@link ProductSnapshotCache} in sync with product-service.
+ * <p>
+ * Consumes the products analytics fanout through a per-instance queue and
+ * evicts snapshots whose price or availability changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventsListener {
+
+    private final ProductSnapshotCache productSnapshotCache;
+    private final EventCodec eventCodec;
+
+    @RabbitListener(queues = "#{productCacheQueue.name}")
+    public void handleProductEvent(Message message) {
+        try {
+            JsonNode event = eventCodec.decode(message);
+
+            String eventType = event.path("eventType").asString(null);
+            String productId = event.path("productId").asString(null);
+
+            if (eventType == null || productId == null) {
+                log.warn("Invalid PRODUCT event payload: {}", event);
+                return;
+            }
+
+            UUID id = UUID.fromString(productId);
+
+            switch (eventType) {
+
+                // Price or lifecycle changed → snapshot is stale
+                case "PRICE_UPDATED",
+                     "PRODUCT_DEACTIVATED",
+                     "PRODUCT_ACTIVATED" -> productSnapshotCache.invalidate(id);
+
+                // Stock moves only matter when they flip the status (e.g. → OUT_OF_STOCK)
+                case "INVENTORY_REDUCED",
+                     "INVENTORY_INCREASED",
+                     "STOCK_STATUS_CHANGED" -> productSnapshotCache.invalidateIfStatusChanged(
+                        id,
+                        event.path("status").asString(null)
+                );
+
+                default -> log.trace("Product event ignored by cache. eventType={}", eventType);
+            }
+
+        } catch (Exception ex) {
+            log.error("❌ Failed to process PRODUCT event", ex);
+        }
+    }
+}
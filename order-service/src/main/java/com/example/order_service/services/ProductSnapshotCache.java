@@ -0,0 +1,147 @@
+package com.example.order_service.services;
+
+import com.example.order_service.models.ProductSnapshot;
+import com.example.order_service.utils.RestClient;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded in-process cache of {@link ProductSnapshot}s keyed by product id.
+ * <p>
+ * - Size bounded and expired after {@code ttl}
+ * - Refresh-ahead: entries older than {@code refresh-after} are reloaded in the
+ *   background on access while the current value keeps being served
+ * - Stampede protection: concurrent misses for the same product share one
+ *   in-flight load, and misses within one call are fetched with a single
+ *   {@code /products/batch} request
+ * - Unknown products are simply absent from the result (and not cached), so
+ *   callers decide per order what a missing product means
+ * - Invalidated by product events (see {@link ProductEventsListener})
+ */
+@Service
+@Slf4j
+public class ProductSnapshotCache {
+
+    private static final String PRODUCT_SERVICE_BASE_URL = "http://localhost:5000";
+
+    private final RestClient restClient;
+    private final AsyncLoadingCache<UUID, ProductSnapshot> cache;
+
+    public ProductSnapshotCache(
+            RestClient restClient,
+            @Value("${order.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.product-cache.ttl:PT5M}") Duration ttl,
+            @Value("${order.product-cache.refresh-after:PT1M}") Duration refreshAfter,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.restClient = restClient;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (virtualThreads) {
+            // Loads block on HTTP; keep them off the common fork-join pool
+            builder.executor(new VirtualThreadTaskExecutor("product-cache-"));
+        }
+
+        this.cache = builder
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .buildAsync(new ProductSnapshotLoader());
+    }
+
+    /* =========================
+       LOOKUP
+       ========================= */
+
+    /**
+     * Returns snapshots for the given products, loading all misses in one batch call.
+     */
+    public Map<UUID, ProductSnapshot> getAll(Collection<UUID> productIds) {
+        try {
+            return cache.getAll(productIds).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /* =========================
+       INVALIDATION
+       ========================= */
+
+    public void invalidate(UUID productId) {
+        cache.synchronous().invalidate(productId);
+        log.debug("Product snapshot invalidated. productId={}", productId);
+    }
+
+    /**
+     * Evicts the cached snapshot only if its status no longer matches.
+     * In-flight loads are evicted too, since they may predate the change.
+     */
+    public void invalidateIfStatusChanged(UUID productId, String status) {
+        CompletableFuture<ProductSnapshot> cached = cache.getIfPresent(productId);
+
+        if (cached == null) {
+            return;
+        }
+
+        ProductSnapshot snapshot = cached.isDone() && !cached.isCompletedExceptionally()
+                ? cached.join()
+                : null;
+
+        if (snapshot == null || !Objects.equals(snapshot.getStatus(), status)) {
+            invalidate(productId);
+        }
+    }
+
+    /* =========================
+       LOADER
+       ========================= */
+
+    private class ProductSnapshotLoader implements CacheLoader<UUID, ProductSnapshot> {
+
+        @Override
+        public ProductSnapshot load(UUID productId) {
+            return loadAll(Set.of(productId)).get(productId);
+        }
+
+        @Override
+        public Map<UUID, ProductSnapshot> loadAll(Set<? extends UUID> productIds) {
+            // Lenient lookup: one unknown id must not fail the others
+            ProductSnapshot[] products =
+                    restClient.exchange(
+                            HttpMethod.POST,
+                            PRODUCT_SERVICE_BASE_URL,
+                            "/api/v1/products/batch",
+                            null,
+                            Map.of("strict", false),
+                            new ArrayList<>(productIds),
+                            ProductSnapshot[].class,
+                            null
+                    );
+
+            Map<UUID, ProductSnapshot> loaded = new HashMap<>();
+            if (products != null) {
+                for (ProductSnapshot product : products) {
+                    loaded.put(product.getProductId(), product);
+                }
+            }
+
+            log.debug("Product snapshots loaded. requested={}, loaded={}", productIds.size(), loaded.size());
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.order_service.services;
+
+import com.example.order_service.utils.EventCodec;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.JsonNode;
+
+import java.util.UUID;
+
+import static com.example.order_service.configuration.RabbitMQConfig.ORDER_INVENTORY_COMMIT_FAILED_QUEUE;
+
+/**
+ * Consumes product-service's reports of paid orders whose reservation could
+ * not be committed (see {@link OrderService#handleReservationCommitFailure}).
+ * <p>
+ * Handling is idempotent: a redelivered report finds the order already
+ * cancelled. Database failures and exhausted optimistic retries put the
+ * report back on the queue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationCommitFailureListener {
+
+    private final OrderService orderService;
+    private final EventCodec eventCodec;
+
+    @RabbitListener(queues = ORDER_INVENTORY_COMMIT_FAILED_QUEUE)
+    public void handleCommitFailure(Message message) {
+        try {
+            JsonNode event = eventCodec.decode(message);
+
+            String orderId = event.path("orderId").asString(null);
+            if (orderId == null) {
+                log.warn("Invalid INVENTORY_COMMIT_FAILED payload: {}", event);
+                return;
+            }
+
+            orderService.handleReservationCommitFailure(
+                    UUID.fromString(orderId),
+                    event.path("reason").asString("unknown")
+            );
+
+        } catch (DataAccessException | ResponseStatusException ex) {
+            // Database trouble or optimistic retries used up: try again later
+            log.warn("Inventory commit failure not handled, requeueing. reason={}", ex.getMessage());
+            throw new ImmediateRequeueAmqpException(ex);
+        } catch (EntityNotFoundException ex) {
+            log.error("Inventory commit failed for an unknown order: {}", ex.getMessage());
+        } catch (Exception ex) {
+            log.error("❌ Failed to process INVENTORY_COMMIT_FAILED event", ex);
+        }
+    }
+}
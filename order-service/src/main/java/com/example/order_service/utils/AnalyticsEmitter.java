@@ -0,0 +1,183 @@
+package com.example.order_service.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.example.order_service.configuration.RabbitMQConfig.ORDER_ANALYTICS_FANOUT_EXCHANGE;
+
+/**
+ * Fire-and-forget emitter for high-volume analytics events (e.g. ORDER_FETCHED).
+ * <p>
+ * Callers only sample and enqueue into a {@link BoundedRingBuffer}; a background
+ * thread drains it in batches to the analytics fanout exchange. When the buffer
+ * is full (broker slow or down) events are dropped and counted, so the calling
+ * request never waits on RabbitMQ.
+ * <p>
+ * Sample rates are configured per event type as
+ * {@code order.analytics.sample-rates=ORDER_FETCHED=0.1,...}; unlisted types are
+ * always emitted.
+ */
+@Component
+@Slf4j
+public class AnalyticsEmitter {
+
+    private final RabbitMQSender rabbitMQSender;
+    private final EventCodec eventCodec;
+    private final BoundedRingBuffer<Object> buffer;
+    private final Map<String, Double> sampleRates;
+    private final int batchSize;
+    private final long drainIntervalNanos;
+
+    private final Counter enqueued;
+    private final Counter sampledOut;
+    private final Counter dropped;
+    private final Counter published;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public AnalyticsEmitter(
+            RabbitMQSender rabbitMQSender,
+            EventCodec eventCodec,
+            MeterRegistry meterRegistry,
+            @Value("${order.analytics.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${order.analytics.batch-size:256}") int batchSize,
+            @Value("${order.analytics.drain-interval-ms:50}") long drainIntervalMs,
+            @Value("${order.analytics.sample-rates:}") String sampleRates
+    ) {
+        this.rabbitMQSender = rabbitMQSender;
+        this.eventCodec = eventCodec;
+        this.buffer = new BoundedRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(drainIntervalMs);
+        this.sampleRates = parseSampleRates(sampleRates);
+
+        this.enqueued = eventCounter(meterRegistry, "enqueued");
+        this.sampledOut = eventCounter(meterRegistry, "sampled_out");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.published = eventCounter(meterRegistry, "published");
+        this.failed = eventCounter(meterRegistry, "failed");
+
+        Gauge.builder("order.analytics.buffer.size", buffer, BoundedRingBuffer::size)
+                .register(meterRegistry);
+    }
+
+    /* =========================
+       EMIT
+       ========================= */
+
+    /**
+     * Samples and enqueues an event; never blocks. The payload must not be mutated
+     * afterwards, since it is serialized on the drain thread.
+     */
+    public void emit(String eventType, Object payload) {
+        double rate = sampleRates.getOrDefault(eventType, 1.0);
+
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            sampledOut.increment();
+            return;
+        }
+
+        if (buffer.offer(payload)) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /* =========================
+       DRAIN
+       ========================= */
+
+    @PostConstruct
+    void start() {
+        running = true;
+        drainThread = Thread.ofPlatform()
+                .name("order-analytics-drain")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainThread);
+        drainThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drainLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(drainIntervalNanos);
+                continue;
+            }
+            publish(batch);
+        }
+
+        // Flush what is left on shutdown
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            publish(batch);
+        }
+    }
+
+    private void publish(List<Object> batch) {
+        try {
+            List<Message> messages = new ArrayList<>(batch.size());
+            for (Object event : batch) {
+                messages.add(eventCodec.toMessage(event));
+            }
+
+            rabbitMQSender.publishBatch(ORDER_ANALYTICS_FANOUT_EXCHANGE, "", messages);
+            published.increment(batch.size());
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            log.warn("Dropped analytics batch. size={}, reason={}", batch.size(), ex.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private static Map<String, Double> parseSampleRates(String value) {
+        Map<String, Double> rates = new HashMap<>();
+
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid analytics sample rate: " + entry);
+            }
+            rates.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return rates;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.analytics.events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.order_service.utils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker for one downstream.
+ * <p>
+ * - CLOSED: calls pass; outcomes of the last {@code windowSize} calls are kept and
+ *   the breaker opens once the failure rate reaches the threshold (after at least
+ *   {@code minimumCalls})
+ * - OPEN: calls are rejected until {@code openDuration} has passed
+ * - HALF_OPEN: up to {@code halfOpenProbes} calls go through; all succeeding
+ *   closes the breaker, any failure opens it again
+ * <p>
+ * Every transition starts a new generation, and each {@link Permit} carries the
+ * state and generation it was admitted under. An outcome only counts for the
+ * period that admitted the call, so a slow call let through while CLOSED can't
+ * complete the probes of a later HALF_OPEN, nor a stale failure reopen it.
+ * <p>
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so virtual threads
+ * are never pinned.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failedCalls;
+
+    // Written under the lock, generation first, and read in reverse order on the fast path
+    private volatile long generation;
+    private volatile State state = State.CLOSED;
+    private int recordedCalls;
+    private int failures;
+    private int nextSlot;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(
+            int failureRateThreshold,
+            int minimumCalls,
+            int windowSize,
+            Duration openDuration,
+            int halfOpenProbes
+    ) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Admits a call, or returns empty if it must be rejected. Every permit must be
+     * followed by {@link #onSuccess}, {@link #onFailure} or, if the call ended
+     * without an outcome (e.g. an {@link Error}), {@link #release}.
+     */
+    public Optional<Permit> tryAcquirePermission() {
+        long admittedIn = generation;
+        if (state == State.CLOSED) {
+            return Optional.of(new Permit(State.CLOSED, admittedIn));
+        }
+
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return Optional.empty();
+                }
+                transitionTo(State.HALF_OPEN);
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    return Optional.empty();
+                }
+                probesStarted++;
+            }
+            return Optional.of(new Permit(state, generation));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(Permit permit) {
+        lock.lock();
+        try {
+            if (!isCurrent(permit)) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (++probesSucceeded >= halfOpenProbes) {
+                    close();
+                }
+                return;
+            }
+            record(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure(Permit permit) {
+        lock.lock();
+        try {
+            if (!isCurrent(permit)) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            record(true);
+            if (recordedCalls >= minimumCalls
+                    && failures * 100 >= failureRateThreshold * recordedCalls) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit whose call produced no outcome; a probe frees its slot
+     * so HALF_OPEN doesn't wait forever for a result that never comes.
+     */
+    public void release(Permit permit) {
+        lock.lock();
+        try {
+            if (isCurrent(permit) && state == State.HALF_OPEN) {
+                probesStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The state and generation a call was admitted under.
+     */
+    public record Permit(State state, long generation) {
+    }
+
+    /* =========================
+       INTERNALS (lock held)
+       ========================= */
+
+    private boolean isCurrent(Permit permit) {
+        return permit.generation() == generation && permit.state() == state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == failedCalls.length) {
+            if (failedCalls[nextSlot]) {
+                failures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+
+        failedCalls[nextSlot] = failed;
+        if (failed) {
+            failures++;
+        }
+        nextSlot = (nextSlot + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        transitionTo(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        transitionTo(State.CLOSED);
+        recordedCalls = 0;
+        failures = 0;
+        nextSlot = 0;
+        Arrays.fill(failedCalls, false);
+    }
+
+    private void transitionTo(State next) {
+        generation++;
+        state = next;
+    }
+}
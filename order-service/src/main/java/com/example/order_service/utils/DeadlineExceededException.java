@@ -0,0 +1,14 @@
+package com.example.order_service.utils;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * The deadline had already passed when a call was about to be made, so the
+ * request was never sent.
+ */
+public class DeadlineExceededException extends ResourceAccessException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.order_service.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead + circuit breaker per downstream service (keyed by host:port).
+ * <p>
+ * A slow or failing downstream can then only hold {@code max-concurrent-calls}
+ * callers at a time, and once its circuit opens callers fail immediately with
+ * {@link DownstreamUnavailableException} (503) instead of waiting on timeouts.
+ * Only transport errors and 5xx responses count as failures; 4xx answers mean
+ * the downstream is healthy. A call cut short by the caller's own
+ * {@link RequestDeadline} (expired before sending, or a timeout once it ran out)
+ * says nothing about the downstream and is not counted either way.
+ * <p>
+ * Metrics (tag {@code downstream}):
+ * - {@code order.downstream.circuit.state}: 0 closed, 1 open, 2 half-open
+ * - {@code order.downstream.bulkhead.available}: free call slots
+ * - {@code order.downstream.calls}: completed calls, tag {@code outcome}
+ * - {@code order.downstream.rejected}: fast-failed calls, tag {@code reason}
+ */
+@Component
+@Slf4j
+public class DownstreamGuards {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final int windowSize;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuards(
+            MeterRegistry meterRegistry,
+            @Value("${order.resilience.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${order.resilience.bulkhead.max-wait:PT0.1S}") Duration maxWait,
+            @Value("${order.resilience.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${order.resilience.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${order.resilience.circuit.window-size:20}") int windowSize,
+            @Value("${order.resilience.circuit.open-duration:PT10S}") Duration openDuration,
+            @Value("${order.resilience.circuit.half-open-probes:3}") int halfOpenProbes
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.windowSize = windowSize;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /* =========================
+       GUARDED CALL
+       ========================= */
+
+    public <T> T call(String downstream, Supplier<T> call) {
+        Guard guard = guards.computeIfAbsent(downstream, this::newGuard);
+
+        if (!acquireSlot(guard)) {
+            guard.rejectedByBulkhead.increment();
+            throw new DownstreamUnavailableException(
+                    "Too many concurrent calls to " + downstream
+            );
+        }
+
+        try {
+            CircuitBreaker.Permit permit = guard.circuitBreaker.tryAcquirePermission()
+                    .orElseThrow(() -> {
+                        guard.rejectedByCircuit.increment();
+                        return new DownstreamUnavailableException(
+                                "Circuit open for " + downstream
+                        );
+                    });
+
+            boolean recorded = false;
+            try {
+                T result = call.get();
+                guard.circuitBreaker.onSuccess(permit);
+                recorded = true;
+                guard.succeeded.increment();
+                return result;
+            } catch (RuntimeException ex) {
+                if (cutShortByDeadline(ex)) {
+                    // Not the downstream's outcome; recorded stays false so the permit is released
+                    throw ex;
+                }
+                if (isFailure(ex)) {
+                    guard.circuitBreaker.onFailure(permit);
+                    guard.failed.increment();
+                    if (guard.circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                        log.warn("Circuit open for downstream {}", downstream);
+                    }
+                } else {
+                    guard.circuitBreaker.onSuccess(permit);
+                    guard.succeeded.increment();
+                }
+                recorded = true;
+                throw ex;
+            } finally {
+                // Errors (and anything else that skipped an outcome) must not keep a probe slot
+                if (!recorded) {
+                    guard.circuitBreaker.release(permit);
+                }
+            }
+        } finally {
+            guard.bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker.State getState(String downstream) {
+        Guard guard = guards.get(downstream);
+        return guard == null ? CircuitBreaker.State.CLOSED : guard.circuitBreaker.getState();
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private boolean acquireSlot(Guard guard) {
+        try {
+            return guard.bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Client-supplied deadlines must not be able to open the circuit for everyone
+    private static boolean cutShortByDeadline(RuntimeException ex) {
+        return ex instanceof DeadlineExceededException
+                || (ex instanceof ResourceAccessException
+                && RequestDeadline.remaining().map(remaining -> !remaining.isPositive()).orElse(false));
+    }
+
+    private static boolean isFailure(RuntimeException ex) {
+        return ex instanceof ResourceAccessException
+                || ex instanceof HttpServerErrorException;
+    }
+
+    private Guard newGuard(String downstream) {
+        Semaphore bulkhead = new Semaphore(maxConcurrentCalls);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                failureRateThreshold,
+                minimumCalls,
+                windowSize,
+                openDuration,
+                halfOpenProbes
+        );
+
+        Gauge.builder("order.downstream.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        Gauge.builder("order.downstream.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+
+        return new Guard(
+                bulkhead,
+                circuitBreaker,
+                callCounter(downstream, "success"),
+                callCounter(downstream, "failure"),
+                rejectedCounter(downstream, "bulkhead_full"),
+                rejectedCounter(downstream, "circuit_open")
+        );
+    }
+
+    private Counter callCounter(String downstream, String outcome) {
+        return Counter.builder("order.downstream.calls")
+                .tag("downstream", downstream)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String downstream, String reason) {
+        return Counter.builder("order.downstream.rejected")
+                .tag("downstream", downstream)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record Guard(
+            Semaphore bulkhead,
+            CircuitBreaker circuitBreaker,
+            Counter succeeded,
+            Counter failed,
+            Counter rejectedByBulkhead,
+            Counter rejectedByCircuit
+    ) {
+    }
+}
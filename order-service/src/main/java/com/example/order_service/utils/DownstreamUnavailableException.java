@@ -0,0 +1,16 @@
+package com.example.order_service.utils;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised without calling the downstream when its bulkhead is full or its circuit is open,
+ * or when the downstream answered that it failed without applying anything. Worth retrying.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DownstreamUnavailableException extends RuntimeException {
+
+    public DownstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.order_service.utils;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Encodes outgoing events and decodes incoming ones based on the AMQP
+ * {@code content-type} header.
+ * <p>
+ * Producers use {@code order.events.encoding} (JSON or CBOR). Consumers never
+ * look at that setting: they pick the format from the message itself, so both
+ * encodings can be on a queue at the same time during a rollout. Messages
+ * without a known binary content type (including legacy {@code text/plain})
+ * are read as JSON.
+ */
+@Component
+public class EventCodec {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    public enum Encoding {
+        JSON(MessageProperties.CONTENT_TYPE_JSON),
+        CBOR(CONTENT_TYPE_CBOR);
+
+        private final String contentType;
+
+        Encoding(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    private final Encoding encoding;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public EventCodec(@Value("${order.events.encoding:JSON}") Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /* =========================
+       ENCODING
+       ========================= */
+
+    public String contentType() {
+        return encoding.contentType();
+    }
+
+    public byte[] encode(Object payload) {
+        return (encoding == Encoding.CBOR ? cborMapper : jsonMapper).writeValueAsBytes(payload);
+    }
+
+    public Message toMessage(Object payload) {
+        return toMessage(encode(payload), contentType());
+    }
+
+    /**
+     * Wraps an already encoded body (e.g. from the outbox) with its content type.
+     */
+    public static Message toMessage(byte[] body, String contentType) {
+        return MessageBuilder.withBody(body)
+                .setContentType(contentType)
+                .build();
+    }
+
+    /* =========================
+       DECODING
+       ========================= */
+
+    public JsonNode decode(Message message) {
+        return mapperFor(message).readTree(message.getBody());
+    }
+
+    public <T> T decode(Message message, Class<T> type) {
+        return mapperFor(message).readValue(message.getBody(), type);
+    }
+
+    private ObjectMapper mapperFor(Message message) {
+        String contentType = message.getMessageProperties().getContentType();
+        return CONTENT_TYPE_CBOR.equals(contentType) ? cborMapper : jsonMapper;
+    }
+}
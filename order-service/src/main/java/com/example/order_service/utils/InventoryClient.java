@@ -0,0 +1,140 @@
+package com.example.order_service.utils;
+
+import com.example.order_service.models.InventoryBulkReduceRequest;
+import com.example.order_service.models.InventoryReduceResponse;
+import com.example.order_service.models.InventoryReserveRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.example.order_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_DIRECT_EXCHANGE;
+import static com.example.order_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_REDUCE_ROUTING_KEY;
+import static com.example.order_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_RESERVE_ROUTING_KEY;
+
+/**
+ * Inventory reduction and reservation against product-service over a
+ * selectable transport.
+ * <p>
+ * - REST: {@code POST /api/v1/products/reduce}, {@code POST /api/v1/products/reservations}
+ * - AMQP: request/reply on {@code products.inventory.direct.exchange} using
+ *   RabbitMQ direct reply-to (no reply queue per request, reply timeout from
+ *   {@code spring.rabbitmq.template.reply-timeout})
+ * <p>
+ * Outcomes are the same on both transports: a result for {@code SUCCESS},
+ * {@link InventoryRejectedException} when product-service refused the request
+ * (AMQP {@code FAILED}, REST 4xx), {@link DownstreamUnavailableException} when
+ * it failed without applying anything (AMQP {@code ERROR}, or the guards
+ * refused the call). Timeouts and transport errors leave the outcome unknown.
+ */
+@Component
+@Slf4j
+public class InventoryClient {
+
+    private static final String PRODUCT_SERVICE_BASE_URL = "http://localhost:5000";
+
+    private final RestClient restClient;
+    private final RabbitTemplate rabbitTemplate;
+    private final Transport transport;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public InventoryClient(
+            RestClient restClient,
+            RabbitTemplate rabbitTemplate,
+            @Value("${order.inventory.transport:REST}") Transport transport
+    ) {
+        this.restClient = restClient;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transport = transport;
+    }
+
+    public InventoryReduceResponse reduce(InventoryBulkReduceRequest request) {
+        return switch (transport) {
+            case REST -> reduceOverRest(request);
+            case AMQP -> reduceOverAmqp(request);
+        };
+    }
+
+    /**
+     * Holds stock per order; commit / release follow through the outbox.
+     */
+    public InventoryReduceResponse reserve(InventoryReserveRequest request) {
+        return switch (transport) {
+            case REST -> overRest("/api/v1/products/reservations", request);
+            case AMQP -> overAmqp(PRODUCTS_INVENTORY_RESERVE_ROUTING_KEY, request);
+        };
+    }
+
+    /* =========================================================
+       TRANSPORTS
+       ========================================================= */
+
+    private InventoryReduceResponse reduceOverRest(InventoryBulkReduceRequest request) {
+        return overRest("/api/v1/products/reduce", request);
+    }
+
+    private InventoryReduceResponse reduceOverAmqp(InventoryBulkReduceRequest request) {
+        return overAmqp(PRODUCTS_INVENTORY_REDUCE_ROUTING_KEY, request);
+    }
+
+    private InventoryReduceResponse overRest(String path, Object request) {
+        try {
+            return settled(restClient.post(
+                    PRODUCT_SERVICE_BASE_URL,
+                    path,
+                    null,
+                    request,
+                    InventoryReduceResponse.class
+            ), path);
+        } catch (HttpClientErrorException ex) {
+            if (ex instanceof HttpClientErrorException.TooManyRequests) {
+                throw ex;
+            }
+            throw new InventoryRejectedException(
+                    "Inventory request rejected by product-service. path=" + path
+                            + ", status=" + ex.getStatusCode().value(),
+                    ex
+            );
+        }
+    }
+
+    private InventoryReduceResponse overAmqp(String routingKey, Object request) {
+        Object reply = rabbitTemplate.convertSendAndReceive(
+                PRODUCTS_INVENTORY_DIRECT_EXCHANGE,
+                routingKey,
+                objectMapper.writeValueAsString(request)
+        );
+
+        if (reply == null) {
+            // The request may still be applied: not a rejection
+            throw new AmqpTimeoutException("Inventory reply timed out. routingKey=" + routingKey);
+        }
+
+        String json = reply instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : reply.toString();
+        return settled(objectMapper.readValue(json, InventoryReduceResponse.class), routingKey);
+    }
+
+    private static InventoryReduceResponse settled(InventoryReduceResponse response, String request) {
+        String status = response == null ? null : response.getStatus();
+
+        if ("SUCCESS".equals(status)) {
+            return response;
+        }
+        if ("FAILED".equals(status)) {
+            throw new InventoryRejectedException("Inventory request rejected by product-service. request=" + request);
+        }
+        throw new DownstreamUnavailableException(
+                "Inventory request failed in product-service. request=" + request + ", status=" + status
+        );
+    }
+
+    public enum Transport {
+        REST,
+        AMQP
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.order_service.utils;
+
+/**
+ * product-service refused an inventory request (insufficient stock, unknown or
+ * inactive product): nothing was applied and sending it again won't help.
+ * <p>
+ * Any other failure of an inventory call (timeout, transport error, 5xx) says
+ * nothing about the outcome's cause and may be worth retrying.
+ */
+public class InventoryRejectedException extends IllegalStateException {
+
+    public InventoryRejectedException(String message) {
+        super(message);
+    }
+
+    public InventoryRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
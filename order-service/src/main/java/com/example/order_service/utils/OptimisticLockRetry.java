@@ -0,0 +1,96 @@
+package com.example.order_service.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write work in its own transaction and re-runs it when a
+ * concurrent writer bumped the entity {@code @Version} first.
+ * <p>
+ * Retries back off with full jitter ({@code random(0, base * 2^attempt)}), so
+ * colliding writers spread out instead of colliding again. Nothing is locked, so
+ * work on different rows never waits. Conflicts are counted per operation in
+ * {@code order.optimistic.conflicts} (against {@code order.optimistic.attempts});
+ * once {@code max-attempts} is used up the caller gets a 409.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticLockRetry(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${order.optimistic-retry.base-backoff:PT0.01S}") Duration baseBackoff,
+            @Value("${order.optimistic-retry.max-backoff:PT0.2S}") Duration maxBackoff
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        Counter attempts = counter("order.optimistic.attempts", operation);
+        Counter conflicts = counter("order.optimistic.conflicts", operation);
+
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.increment();
+
+                if (attempt >= maxAttempts) {
+                    counter("order.optimistic.exhausted", operation).increment();
+                    log.warn("Optimistic lock retries exhausted. operation={}, attempts={}", operation, attempt);
+                    throw new ResponseStatusException(
+                            HttpStatus.CONFLICT,
+                            "Concurrent update, please retry",
+                            ex
+                    );
+                }
+
+                log.debug("Optimistic lock conflict, retrying. operation={}, attempt={}", operation, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt, 20));
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying optimistic update", ex);
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.order_service.utils;
+
+import com.example.order_service.entity.OrderEntity;
+import com.example.order_service.entity.OutboxEventEntity;
+import com.example.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.order_service.configuration.RabbitMQConfig.*;
+
+/**
+ * Transactional counterpart of {@link RabbitMQSender}.
+ * <p>
+ * Events are stored in the {@code order_outbox} table as part of the caller's
+ * transaction, so they are only published if the order change commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventCodec eventCodec;
+
+    /* =========================================================
+       1️⃣ ORDER STATUS EVENTS (Topic Exchange)
+       ========================================================= */
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderStatusEvent(
+            String status,
+            Object payload
+    ) {
+        String routingKey = ORDER_STATUS_ROUTING_KEY_PREFIX + status.toLowerCase();
+        enqueue(ORDER_STATUS_TOPIC_EXCHANGE, routingKey, payload);
+    }
+
+    /* =========================================================
+       2️⃣ ORDER ANALYTICS EVENTS (Fanout)
+       ========================================================= */
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderAnalyticsEvent(Object payload) {
+        enqueue(ORDER_ANALYTICS_FANOUT_EXCHANGE, "", payload);
+    }
+
+    /* =========================================================
+       3️⃣ PAYMENT STATUS EVENTS (Topic Exchange)
+       ========================================================= */
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePaymentStatusEvent(
+            String paymentStatus,
+            Object payload
+    ) {
+        String routingKey = PAYMENT_STATUS_ROUTING_KEY_PREFIX + paymentStatus.toLowerCase();
+        enqueue(PAYMENT_STATUS_TOPIC_EXCHANGE, routingKey, payload);
+    }
+
+    /* =========================================================
+       4️⃣ ORDER COMMANDS (Direct Exchange)
+       ========================================================= */
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderCommand(Object command) {
+        enqueue(ORDER_COMMAND_DIRECT_EXCHANGE, ORDER_COMMAND_CREATE_ROUTING_KEY, command);
+    }
+
+    /* =========================================================
+       5️⃣ INVENTORY RESERVATION COMMANDS (product-service, Direct Exchange)
+       ========================================================= */
+
+    /**
+     * The order is paid: product-service turns its stock hold into a sale. The
+     * lines travel along so a hold that already expired can still be covered
+     * from available stock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueReservationCommit(UUID orderId, List<OrderEntity.OrderProduct> lines) {
+        List<Map<String, Object>> items = lines.stream()
+                .map(line -> Map.<String, Object>of(
+                        "productId", line.getProductId(),
+                        "quantity", line.getQuantity()
+                ))
+                .toList();
+
+        enqueue(
+                PRODUCTS_INVENTORY_DIRECT_EXCHANGE,
+                PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY,
+                Map.of("orderId", orderId, "items", items)
+        );
+    }
+
+    /**
+     * The order won't be paid: product-service puts its held stock back on sale.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueReservationRelease(UUID orderId) {
+        enqueue(PRODUCTS_INVENTORY_DIRECT_EXCHANGE, PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY, Map.of("orderId", orderId));
+    }
+
+    /* =========================================================
+       INTERNAL OUTBOX WRITER
+       ========================================================= */
+
+    private void enqueue(
+            String exchange,
+            String routingKey,
+            Object payload
+    ) {
+        byte[] body;
+        try {
+            body = eventCodec.encode(payload);
+        } catch (Exception ex) {
+            log.error("❌ Failed to serialize outbox event", ex);
+            throw new IllegalStateException("Outbox event serialization failed", ex);
+        }
+
+        outboxEventRepository.save(
+                OutboxEventEntity.builder()
+                        .exchange(exchange)
+                        .routingKey(routingKey)
+                        .payload(body)
+                        .contentType(eventCodec.contentType())
+                        .build()
+        );
+
+        log.debug("Outbox event stored → exchange={}, routingKey={}", exchange, routingKey);
+    }
+}
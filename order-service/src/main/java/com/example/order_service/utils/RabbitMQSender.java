@@ -2,9 +2,12 @@ package com.example.order_service.utils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
-import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
 
 import static com.example.order_service.configuration.RabbitMQConfig.*;
 
@@ -14,7 +17,8 @@ import static com.example.order_service.configuration.RabbitMQConfig.*;
 public class RabbitMQSender {
 
     private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventCodec eventCodec;
+    private final PublisherConfirmTracker confirmTracker;
 
     /* =========================================================
        1️⃣ ORDER STATUS EVENTS (Topic Exchange)
@@ -32,8 +36,8 @@ public class RabbitMQSender {
             String status,
             Object payload
     ) {
-        String routingKey = "order.status." + status.toLowerCase();
-        sendAsJson(ORDER_STATUS_TOPIC_EXCHANGE, routingKey, payload);
+        String routingKey = ORDER_STATUS_ROUTING_KEY_PREFIX + status.toLowerCase();
+        sendEncoded(ORDER_STATUS_TOPIC_EXCHANGE, routingKey, payload);
     }
 
     /* =========================================================
@@ -44,7 +48,7 @@ public class RabbitMQSender {
      * Broadcasts order events to analytics systems.
      */
     public void sendOrderAnalyticsEvent(Object payload) {
-        sendAsJson(ORDER_ANALYTICS_FANOUT_EXCHANGE, "", payload);
+        sendEncoded(ORDER_ANALYTICS_FANOUT_EXCHANGE, "", payload);
     }
 
     /* =========================================================
@@ -63,23 +67,65 @@ public class RabbitMQSender {
             String paymentStatus,
             Object payload
     ) {
-        String routingKey = "payment.status." + paymentStatus.toLowerCase();
-        sendAsJson(PAYMENT_STATUS_TOPIC_EXCHANGE, routingKey, payload);
+        String routingKey = PAYMENT_STATUS_ROUTING_KEY_PREFIX + paymentStatus.toLowerCase();
+        sendEncoded(PAYMENT_STATUS_TOPIC_EXCHANGE, routingKey, payload);
     }
 
     /* =========================================================
-       INTERNAL JSON SENDER (STRICT)
+       4️⃣ PRE-SERIALIZED EVENTS (Outbox relay)
        ========================================================= */
 
-    private void sendAsJson(
+    /**
+     * Publishes an already encoded payload without waiting for the broker.
+     * The returned correlation's future completes once the publish is confirmed
+     * or rejected, so callers can pipeline a whole batch and await it at once.
+     * An unroutable publish is acked too; it carries {@code getReturned()}.
+     * Failures are left to the caller (outbox rows are retried by the relay).
+     */
+    public CorrelationData publish(
+            String exchange,
+            String routingKey,
+            byte[] body,
+            String contentType
+    ) {
+        return confirmTracker.publish(
+                exchange,
+                routingKey,
+                EventCodec.toMessage(body, contentType),
+                false
+        );
+    }
+
+    /**
+     * Publishes a batch of encoded messages back to back on one channel,
+     * without confirm tracking (best-effort traffic such as sampled analytics).
+     */
+    public void publishBatch(
+            String exchange,
+            String routingKey,
+            List<Message> messages
+    ) {
+        rabbitTemplate.invoke(operations -> {
+            messages.forEach(message ->
+                    operations.send(exchange, routingKey, message)
+            );
+            return null;
+        });
+    }
+
+    /* =========================================================
+       INTERNAL ENCODED SENDER (STRICT)
+       ========================================================= */
+
+    // Confirmed asynchronously; nacked / returned events are retried, then parked
+
+    private void sendEncoded(
             String exchange,
             String routingKey,
             Object payload
     ) {
         try {
-            String json = objectMapper.writeValueAsString(payload);
-
-            rabbitTemplate.convertAndSend(exchange, routingKey, json);
+            confirmTracker.publish(exchange, routingKey, eventCodec.toMessage(payload), true);
 
             log.info(
                     "📨 Message sent → exchange={}, routingKey={}",
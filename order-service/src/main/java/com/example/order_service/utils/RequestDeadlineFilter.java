@@ -0,0 +1,47 @@
+package com.example.order_service.utils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Adopts the caller's {@value RequestDeadline#HEADER} for the duration of the request,
+ * so downstream calls made while serving it inherit the same deadline.
+ */
+@Component
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            RequestDeadline.set(Instant.ofEpochMilli(Long.parseLong(header)));
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring malformed {} header: {}", RequestDeadline.HEADER, header);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
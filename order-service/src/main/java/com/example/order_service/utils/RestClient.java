@@ -14,6 +14,7 @@ import java.util.Map;
 public class RestClient {
 
     private final RestTemplate restTemplate;
+    private final DownstreamGuards downstreamGuards;
 
     /* =========================================================
        GENERIC EXCHANGE
@@ -31,6 +32,11 @@ public class RestClient {
     ) {
         URI uri = buildUri(baseUrl, path, pathVariables, queryParams);
 
+        // Before taking a bulkhead slot or circuit permit: an expired deadline is not a downstream failure
+        if (RequestDeadline.remaining().map(remaining -> !remaining.isPositive()).orElse(false)) {
+            throw new DeadlineExceededException("Deadline exceeded before calling " + uri);
+        }
+
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
 
@@ -43,13 +49,16 @@ public class RestClient {
                         ? new HttpEntity<>(body, httpHeaders)
                         : new HttpEntity<>(httpHeaders);
 
-        ResponseEntity<T> response =
-                restTemplate.exchange(
+        // Bulkhead + circuit breaker per downstream host
+        ResponseEntity<T> response = downstreamGuards.call(
+                uri.getAuthority(),
+                () -> restTemplate.exchange(
                         uri,
                         method,
                         requestEntity,
                         responseType
-                );
+                )
+        );
 
         return response.getBody();
     }
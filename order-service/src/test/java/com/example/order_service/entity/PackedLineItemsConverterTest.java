@@ -0,0 +1,111 @@
+package com.example.order_service.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedLineItemsConverterTest {
+
+    // Version 1: one line, product 00000000-0000-0001-0000-000000000002, quantity 300, price 19.99
+    private static final String VERSION_1_COLUMN =
+            "01" + "01"
+                    + "0000000000000001" + "0000000000000002"
+                    + "ac02"
+                    + "02" + "02" + "07cf";
+
+    private final PackedLineItemsConverter converter = new PackedLineItemsConverter();
+
+    @Test
+    void roundTripsMultiByteQuantities() {
+        List<OrderEntity.OrderProduct> lines = List.of(
+                line(1, "1.00"),
+                line(127, "1.00"),      // largest single-byte varint
+                line(128, "1.00"),      // smallest two-byte varint
+                line(16_384, "1.00"),   // smallest three-byte varint
+                line(Integer.MAX_VALUE, "1.00")
+        );
+
+        assertEquals(lines, roundTrip(lines));
+    }
+
+    @Test
+    void roundTripsUnusualPricesWithTheirScale() {
+        List<OrderEntity.OrderProduct> lines = List.of(
+                line(1, "0"),
+                line(1, "0.00"),
+                line(1, "-12.34"),
+                line(1, "-0.01"),
+                line(1, "0.000000000000000000000000000001"),
+                line(1, "123456789012345678901234567890.99"),
+                line(1, "1E+5"),
+                line(1, "-9.99E-120")
+        );
+
+        // OrderProduct equality uses BigDecimal.equals, so the scale must survive too
+        assertEquals(lines, roundTrip(lines));
+    }
+
+    @Test
+    void roundTripsEmptyAndNull() {
+        assertEquals(List.of(), roundTrip(List.of()));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void manyLinesRoundTripAndStayCompact() {
+        List<OrderEntity.OrderProduct> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add(line(i + 1, i + ".99"));
+        }
+
+        byte[] column = converter.convertToDatabaseColumn(lines);
+
+        assertEquals(lines, converter.convertToEntityAttribute(column));
+        assertTrue(column.length < lines.size() * 24, "packed size " + column.length);
+    }
+
+    @Test
+    void decodesStoredVersion1Bytes() {
+        List<OrderEntity.OrderProduct> expected = List.of(new OrderEntity.OrderProduct(
+                new UUID(1L, 2L), 300, new BigDecimal("19.99")
+        ));
+
+        assertEquals(expected, converter.convertToEntityAttribute(HexFormat.of().parseHex(VERSION_1_COLUMN)));
+        // Changing the version 1 layout breaks every stored order: bump the version instead
+        assertArrayEquals(HexFormat.of().parseHex(VERSION_1_COLUMN), converter.convertToDatabaseColumn(expected));
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] column = HexFormat.of().parseHex(VERSION_1_COLUMN);
+        column[0] = 2;
+
+        assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void rejectsScaleThatDoesNotFitTheLayout() {
+        List<OrderEntity.OrderProduct> lines = List.of(line(1, "1E-200"));
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToDatabaseColumn(lines));
+    }
+
+    private List<OrderEntity.OrderProduct> roundTrip(List<OrderEntity.OrderProduct> lines) {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(lines));
+    }
+
+    private static OrderEntity.OrderProduct line(int quantity, String unitPrice) {
+        return new OrderEntity.OrderProduct(UUID.randomUUID(), quantity, new BigDecimal(unitPrice));
+    }
+}
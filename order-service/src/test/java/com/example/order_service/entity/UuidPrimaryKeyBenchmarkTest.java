@@ -0,0 +1,112 @@
+package com.example.order_service.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput and primary-key storage of random (v4) vs time-ordered (v7)
+ * UUIDs in a file-backed H2 database.
+ * <p>
+ * Opt-in, since the default 10M rows per variant takes several minutes:
+ * <pre>
+ * mvn test -Dtest=UuidPrimaryKeyBenchmarkTest -Dbenchmark.uuid=true [-Dbenchmark.uuid.rows=10000000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.uuid", matches = "true")
+class UuidPrimaryKeyBenchmarkTest {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        long rows = Long.getLong("benchmark.uuid.rows", 10_000_000L);
+
+        Result random = run("random_v4", rows, UUID::randomUUID);
+        Result timeOrdered = run("time_ordered_v7", rows, UuidPrimaryKeyBenchmarkTest::uuidV7);
+
+        System.out.printf("%n%-16s %12s %14s %12s%n", "keys", "rows", "rows/s", "disk (MB)");
+        for (Result result : new Result[]{random, timeOrdered}) {
+            System.out.printf(
+                    "%-16s %12d %14.0f %12.1f%n",
+                    result.name(),
+                    result.rows(),
+                    result.rows() / (result.elapsedNanos() / 1e9),
+                    result.diskBytes() / (1024.0 * 1024.0)
+            );
+        }
+    }
+
+    private Result run(String name, long rows, Supplier<UUID> ids) throws SQLException {
+        String url = "jdbc:h2:file:" + dataDir.resolve(name).toAbsolutePath();
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("CREATE TABLE orders (id UUID PRIMARY KEY, total DECIMAL(19, 2) NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            try (PreparedStatement insert =
+                         connection.prepareStatement("INSERT INTO orders (id, total) VALUES (?, ?)")) {
+                for (long i = 1; i <= rows; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setBigDecimal(2, BigDecimal.TEN);
+                    insert.addBatch();
+
+                    if (i % BATCH_SIZE == 0 || i == rows) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            try (Statement query = connection.createStatement();
+                 ResultSet count = query.executeQuery("SELECT COUNT(*) FROM orders")) {
+                count.next();
+                assertEquals(rows, count.getLong(1));
+            }
+
+            long diskBytes;
+            try (Statement query = connection.createStatement();
+                 ResultSet size = query.executeQuery("SELECT DISK_SPACE_USED('ORDERS')")) {
+                size.next();
+                diskBytes = size.getLong(1);
+            }
+
+            return new Result(name, rows, elapsed, diskBytes);
+        }
+    }
+
+    /**
+     * RFC 9562 version 7: 48-bit Unix milliseconds followed by random bits.
+     */
+    private static UUID uuidV7() {
+        long millis = System.currentTimeMillis();
+        long high = (millis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long low = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low);
+    }
+
+    private record Result(String name, long rows, long elapsedNanos, long diskBytes) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.order_service.repository;
+
+import com.example.order_service.entity.Address;
+import com.example.order_service.entity.OrderEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Persisting an order must cost one JDBC statement per table (address, order,
+ * line items), not one per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryBatchingTest {
+
+    private static final int LINE_COUNT = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void fiftyLineOrderIsWrittenWithThreeStatements() {
+        OrderEntity order = OrderEntity.builder()
+                .total(BigDecimal.valueOf(500))
+                .address(Address.builder()
+                        .line1("1 Main St")
+                        .city("Springfield")
+                        .state("IL")
+                        .country("US")
+                        .postalCode("62701")
+                        .build())
+                .build();
+
+        IntStream.range(0, LINE_COUNT).forEach(i ->
+                order.getProducts().add(new OrderEntity.OrderProduct(
+                        UUID.randomUUID(), 1, BigDecimal.TEN
+                ))
+        );
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getCollectionRecreateCount());
+        // address insert + order insert + one batched insert for all 50 line items
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.order_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(2, new BoundedRingBuffer<>(2).capacity());
+        assertEquals(4, new BoundedRingBuffer<>(3).capacity());
+        assertEquals(8, new BoundedRingBuffer<>(5).capacity());
+        assertEquals(8192, new BoundedRingBuffer<>(8192).capacity());
+        assertEquals(16384, new BoundedRingBuffer<>(8193).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedRingBuffer<>(1));
+    }
+
+    @Test
+    void offerFailsWhenFullAndSucceedsOnceSpaceFrees() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void keepsFifoOrderAcrossManyLaps() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+
+        // 1000 elements through 4 slots, with a varying fill level so indices wrap at every offset
+        for (int lap = 0; lap < 250; lap++) {
+            int batch = 1 + lap % 4;
+            for (int i = 0; i < batch; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            for (int i = 0; i < batch; i++) {
+                assertEquals(expected++, buffer.poll());
+            }
+            assertNull(buffer.poll());
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void drainToStopsAtMaxElements() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(8);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 4));
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    void concurrentProducersAndConsumersNeitherLoseNorDuplicate() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 200_000;
+        int total = producers * perProducer;
+
+        // Small buffer: producers hit "full" and the counters lap the slots thousands of times
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(64);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> producerTasks = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                producerTasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int value = first; value < first + perProducer; value++) {
+                        while (!buffer.offer(value)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> consumerTasks = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                consumerTasks.add(pool.submit(() -> {
+                    start.await();
+                    while (true) {
+                        Integer value = buffer.poll();
+                        if (value != null) {
+                            seen.incrementAndGet(value);
+                        } else if (!producing.get()) {
+                            // Producers are done: whatever is left was offered before this poll
+                            if ((value = buffer.poll()) == null) {
+                                return null;
+                            }
+                            seen.incrementAndGet(value);
+                        } else {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> task : producerTasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+            producing.set(false);
+            for (Future<?> task : consumerTasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int value = 0; value < total; value++) {
+            assertEquals(1, seen.get(value), "element " + value + " seen " + seen.get(value) + " times");
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+}
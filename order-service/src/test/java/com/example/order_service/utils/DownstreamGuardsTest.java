@@ -0,0 +1,122 @@
+package com.example.order_service.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A caller's own deadline (which any client can set through the
+ * {@code Request-Deadline} header) must never open a downstream's circuit.
+ */
+class DownstreamGuardsTest {
+
+    private static final String DOWNSTREAM = "localhost:5000";
+
+    // 10 calls minimum, opens at 50% failures
+    private final DownstreamGuards guards = new DownstreamGuards(
+            new SimpleMeterRegistry(),
+            20,
+            Duration.ofMillis(100),
+            50,
+            10,
+            20,
+            Duration.ofSeconds(10),
+            3
+    );
+
+    @AfterEach
+    void clearDeadline() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void transportFailuresOpenTheCircuit() {
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ResourceAccessException.class, () ->
+                    guards.call(DOWNSTREAM, () -> {
+                        throw new ResourceAccessException("Read timed out");
+                    })
+            );
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guards.getState(DOWNSTREAM));
+    }
+
+    @Test
+    void expiredDeadlineNeverOpensTheCircuit() {
+        RequestDeadline.set(Instant.EPOCH);
+
+        for (int i = 0; i < 50; i++) {
+            assertThrows(DeadlineExceededException.class, () ->
+                    guards.call(DOWNSTREAM, () -> {
+                        throw new DeadlineExceededException("Deadline exceeded before calling");
+                    })
+            );
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guards.getState(DOWNSTREAM));
+    }
+
+    @Test
+    void timeoutCappedByTheCallersDeadlineIsNotCounted() {
+        for (int i = 0; i < 50; i++) {
+            assertThrows(ResourceAccessException.class, () ->
+                    guards.call(DOWNSTREAM, () -> {
+                        // The response timeout was cut to the time left, which has now run out
+                        RequestDeadline.set(Instant.now().minusMillis(1));
+                        throw new ResourceAccessException("Read timed out");
+                    })
+            );
+            RequestDeadline.clear();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guards.getState(DOWNSTREAM));
+    }
+
+    @Test
+    void restClientRejectsAnExpiredDeadlineBeforeTheGuards() {
+        AtomicInteger guardedCalls = new AtomicInteger();
+        DownstreamGuards countingGuards = new DownstreamGuards(
+                new SimpleMeterRegistry(), 20, Duration.ofMillis(100), 50, 10, 20, Duration.ofSeconds(10), 3
+        ) {
+            @Override
+            public <T> T call(String downstream, Supplier<T> call) {
+                guardedCalls.incrementAndGet();
+                return super.call(downstream, call);
+            }
+        };
+        RestClient restClient = new RestClient(new RestTemplate(), countingGuards);
+
+        RequestDeadline.set(Instant.now().minusSeconds(1));
+
+        assertThrows(DeadlineExceededException.class, () ->
+                restClient.get("http://localhost:5000", "/api/v1/products", null, null, String.class)
+        );
+        assertEquals(0, guardedCalls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, countingGuards.getState(DOWNSTREAM));
+    }
+
+    @Test
+    void probeCutShortByDeadlineFreesItsSlot() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 1, 1, Duration.ZERO, 1);
+        breaker.onFailure(breaker.tryAcquirePermission().orElseThrow());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // Half-open probe that ends without an outcome gives its slot back
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission().orElseThrow();
+        breaker.release(probe);
+
+        breaker.onSuccess(breaker.tryAcquirePermission().orElseThrow());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
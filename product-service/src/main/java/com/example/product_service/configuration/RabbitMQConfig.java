@@ -24,6 +24,29 @@ public class RabbitMQConfig {
     public static final String PRODUCTS_NOTIFICATION_USER_EXCHANGE =
             "products.notification.user.exchange";
 
+    public static final String PRODUCTS_INVENTORY_DIRECT_EXCHANGE =
+            "products.inventory.direct.exchange";
+
+    /* =========================
+       ROUTING KEYS
+       ========================= */
+
+    public static final String PRODUCTS_INVENTORY_REDUCE_ROUTING_KEY =
+            "products.inventory.reduce";
+
+    public static final String PRODUCTS_INVENTORY_RESERVE_ROUTING_KEY =
+            "products.inventory.reserve";
+
+    public static final String PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY =
+            "products.inventory.reservation.commit";
+
+    public static final String PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY =
+            "products.inventory.reservation.release";
+
+    // Reply to order-service: a paid order's reservation could not be committed
+    public static final String PRODUCTS_INVENTORY_COMMIT_FAILED_ROUTING_KEY =
+            "products.inventory.reservation.commit.failed";
+
     /* =========================
        QUEUE NAMES
        ========================= */
@@ -42,6 +65,25 @@ public class RabbitMQConfig {
 
     public static final String PRODUCTS_NOTIFICATION_USER_QUEUE =
             "products.notification.user.queue";
+
+    // Inventory RPC (request/reply, used by order-service)
+    public static final String PRODUCTS_INVENTORY_REDUCE_QUEUE =
+            "products.inventory.reduce.queue";
+
+    public static final String PRODUCTS_INVENTORY_RESERVE_QUEUE =
+            "products.inventory.reserve.queue";
+
+    // Reservation commit / release commands (one-way, from order-service's outbox)
+    public static final String PRODUCTS_INVENTORY_RESERVATION_QUEUE =
+            "products.inventory.reservation.queue";
+
+    // Events the broker nacked or could not route after all publish retries
+    public static final String PRODUCTS_PUBLISH_PARKING_LOT_QUEUE =
+            "products.publish.parking-lot.queue";
+
+    // Reservation commands that failed with a non-transient database error
+    public static final String PRODUCTS_INVENTORY_RESERVATION_PARKING_LOT_QUEUE =
+            "products.inventory.reservation.parking-lot.queue";
 //
 //    @Bean
 //    public ApplicationRunner forceRabbitAdminInit(RabbitAdmin rabbitAdmin) {
@@ -75,6 +117,11 @@ public class RabbitMQConfig {
         return new DirectExchange(PRODUCTS_NOTIFICATION_TTL_EXCHANGE);
     }
 
+    @Bean
+    public DirectExchange productsInventoryExchange() {
+        return new DirectExchange(PRODUCTS_INVENTORY_DIRECT_EXCHANGE);
+    }
+
     /* =========================
        QUEUES
        ========================= */
@@ -109,6 +156,36 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(PRODUCTS_NOTIFICATION_USER_QUEUE).build();
     }
 
+    // Inventory reduction requests (replies go to the caller's direct reply-to)
+    @Bean
+    public Queue productsInventoryReduceQueue() {
+        return QueueBuilder.durable(PRODUCTS_INVENTORY_REDUCE_QUEUE).build();
+    }
+
+    // Reservation requests (request/reply, like reductions)
+    @Bean
+    public Queue productsInventoryReserveQueue() {
+        return QueueBuilder.durable(PRODUCTS_INVENTORY_RESERVE_QUEUE).build();
+    }
+
+    // Reservation commit / release commands
+    @Bean
+    public Queue productsInventoryReservationQueue() {
+        return QueueBuilder.durable(PRODUCTS_INVENTORY_RESERVATION_QUEUE).build();
+    }
+
+    // Parked publishes (reached through the default exchange, no binding)
+    @Bean
+    public Queue productsPublishParkingLotQueue() {
+        return QueueBuilder.durable(PRODUCTS_PUBLISH_PARKING_LOT_QUEUE).build();
+    }
+
+    // Parked reservation commands, replayed by hand once the cause is fixed (default exchange, no binding)
+    @Bean
+    public Queue productsInventoryReservationParkingLotQueue() {
+        return QueueBuilder.durable(PRODUCTS_INVENTORY_RESERVATION_PARKING_LOT_QUEUE).build();
+    }
+
     /* =========================
        BINDINGS
        ========================= */
@@ -147,4 +224,37 @@ public class RabbitMQConfig {
                 .to(productsNotificationUserExchange())
                 .with("notify.user");
     }
+
+    // Inventory RPC binding
+    @Bean
+    public Binding inventoryReduceBinding() {
+        return BindingBuilder
+                .bind(productsInventoryReduceQueue())
+                .to(productsInventoryExchange())
+                .with(PRODUCTS_INVENTORY_REDUCE_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding inventoryReserveBinding() {
+        return BindingBuilder
+                .bind(productsInventoryReserveQueue())
+                .to(productsInventoryExchange())
+                .with(PRODUCTS_INVENTORY_RESERVE_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding inventoryReservationCommitBinding() {
+        return BindingBuilder
+                .bind(productsInventoryReservationQueue())
+                .to(productsInventoryExchange())
+                .with(PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding inventoryReservationReleaseBinding() {
+        return BindingBuilder
+                .bind(productsInventoryReservationQueue())
+                .to(productsInventoryExchange())
+                .with(PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY);
+    }
 }
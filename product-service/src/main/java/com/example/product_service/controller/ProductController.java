@@ -4,11 +4,17 @@ import com.example.product_service.entity.ProductEntity;
 import com.example.product_service.models.BulkInventoryReductionRequest;
 import com.example.product_service.models.BulkInventoryReductionResponse;
 import com.example.product_service.models.CreateProductRequestModel;
+import com.example.product_service.models.InventoryReservationCommand;
+import com.example.product_service.models.InventoryReservationRequest;
 import com.example.product_service.models.ProductResponseModel;
+import com.example.product_service.services.InventoryReservationService;
 import com.example.product_service.services.ProductService;
+import com.example.product_service.utils.InventoryUnavailableException;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,6 +35,7 @@ public class ProductController {
     public static final String API_V1_PRODUCTS = API_V1 + PRODUCTS;
 
     private final ProductService productService;
+    private final InventoryReservationService inventoryReservationService;
 
     /* =========================
        CREATE
@@ -54,12 +61,18 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(productId));
     }
 
+    /**
+     * 404 if any id is unknown; with {@code strict=false} only the products found are returned.
+     */
     @PostMapping("/batch")
     public ResponseEntity<List<ProductResponseModel>> getProductsByIds(
-            @RequestBody List<UUID> productIds
+            @RequestBody List<UUID> productIds,
+            @RequestParam(defaultValue = "true") boolean strict
     ) {
         return ResponseEntity.ok(
-                productService.getProductsByIdsStrict(productIds)
+                strict
+                        ? productService.getProductsByIdsStrict(productIds)
+                        : productService.getProductsByIds(productIds)
         );
     }
 
@@ -122,6 +135,60 @@ public class ProductController {
                 .body(response);
     }
 
+    /* =========================================================
+       INVENTORY RESERVATIONS
+       ========================================================= */
+
+    /**
+     * Holds stock for one or more orders until they are paid, fail, are
+     * cancelled or the hold expires. All-or-nothing; retries are harmless.
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<BulkInventoryReductionResponse> reserveInventory(
+            @RequestBody InventoryReservationRequest request
+    ) {
+        log.info("Inventory reservation request received");
+
+        inventoryReservationService.reserve(request);
+
+        BulkInventoryReductionResponse response =
+                BulkInventoryReductionResponse.builder()
+                        .status("SUCCESS")
+                        .processedProductIds(
+                                request.getReservations()
+                                        .stream()
+                                        .flatMap(reservation -> reservation.getItems().stream())
+                                        .map(item -> item.getProductId())
+                                        .distinct()
+                                        .collect(Collectors.toList())
+                        )
+                        .processedAt(Instant.now())
+                        .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The body is optional; with the order lines in it, holds that already
+     * expired are covered from available stock.
+     */
+    @PostMapping("/reservations/{orderId}/commit")
+    public ResponseEntity<Void> commitReservation(
+            @PathVariable UUID orderId,
+            @RequestBody(required = false) InventoryReservationCommand command
+    ) {
+        inventoryReservationService.commit(orderId, command == null ? null : command.getItems());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/reservations/{orderId}/release")
+    public ResponseEntity<Void> releaseReservation(
+            @PathVariable UUID orderId
+    ) {
+        inventoryReservationService.release(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/{productId}/inventory/reduce")
     public ResponseEntity<Void> reduceInventory(
             @PathVariable UUID productId,
@@ -140,6 +207,14 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/{productId}/inventory/buckets")
+    public ResponseEntity<ProductResponseModel> configureStockBuckets(
+            @PathVariable UUID productId,
+            @RequestParam int count
+    ) {
+        return ResponseEntity.ok(productService.configureStockBuckets(productId, count));
+    }
+
     /* =========================
        PRODUCT STATE
        ========================= */
@@ -175,10 +250,37 @@ public class ProductController {
         );
     }
 
+    /* =========================
+       ERRORS
+       ========================= */
+
+    // Business rejections are 4xx, so callers can tell them from failures worth retrying (5xx)
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ProblemDetail handleNotFound(EntityNotFoundException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalid(IllegalArgumentException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // Insufficient stock, product not active, reservation can't be committed
+    @ExceptionHandler(IllegalStateException.class)
+    public ProblemDetail handleRejected(IllegalStateException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Nothing applied, worth retrying (e.g. the ledger journal is saturated or failing)
+    @ExceptionHandler(InventoryUnavailableException.class)
+    public ProblemDetail handleUnavailable(InventoryUnavailableException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     /*
      * TODO:
      * - Add batch price lookup endpoint for Order Service
-     * - Add batch inventory reservation endpoint
      * - Add pagination & sorting
      * - Add OpenAPI / Swagger annotations
      * - Add security (admin-only operations)
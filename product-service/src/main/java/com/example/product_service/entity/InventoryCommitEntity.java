@@ -0,0 +1,41 @@
+package com.example.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marks an order whose reservation has been committed, whether from its
+ * holds or, once they had expired, from available stock.
+ * <p>
+ * Written in the commit's transaction before anything else, so a redelivered
+ * or concurrent commit for the same order finds (or waits for) the marker and
+ * never sells the units twice. Pruned by the sweeper after
+ * {@code product.inventory.reservations.commit-retention}.
+ */
+@Entity
+@Table(
+        name = "inventory_commits",
+        indexes = {
+                // Pruning range scan: WHERE committed_at < ?
+                @Index(name = "idx_inventory_commits_committed_at", columnList = "committed_at")
+        }
+)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class InventoryCommitEntity {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "committed_at", nullable = false)
+    private Instant committedAt;
+}
@@ -0,0 +1,43 @@
+package com.example.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stock change applied by the in-memory inventory ledger but not yet folded
+ * into {@code products.available_quantity}.
+ * <p>
+ * Rows are appended in group commits before a reduction is acknowledged and
+ * deleted by the write-behind flush in the same transaction that applies them,
+ * so after a crash the products table plus this journal is the exact stock.
+ * Written and read with plain JDBC by {@code InventoryLedger}; the entity only
+ * defines the table.
+ */
+@Entity
+@Table(name = "inventory_journal")
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class InventoryJournalEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    // Negative for reductions, positive for restocks
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,63 @@
+package com.example.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stock held for one order line until the order is paid (commit), fails or is
+ * cancelled (release), or {@code expires_at} passes (released by the sweeper).
+ * <p>
+ * While a row exists its quantity is counted in {@code products.reserved_quantity}
+ * and not in {@code available_quantity}. Rows are only inserted or deleted while
+ * holding the row locks of their products, so a commit racing the sweeper
+ * applies exactly once.
+ */
+@Entity
+@Table(
+        name = "inventory_reservations",
+        indexes = {
+                // Sweeper range scan: WHERE expires_at <= ? ORDER BY expires_at LIMIT n
+                @Index(name = "idx_inventory_reservations_expires_at", columnList = "expires_at")
+        },
+        uniqueConstraints = {
+                // One hold per order line; also serves lookups by order
+                @UniqueConstraint(
+                        name = "uk_inventory_reservations_order_product",
+                        columnNames = {"order_id", "product_id"}
+                )
+        }
+)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class InventoryReservationEntity {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @JdbcTypeCode(SqlTypes.UUID)
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
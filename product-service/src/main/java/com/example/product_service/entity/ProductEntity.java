@@ -2,7 +2,9 @@ package com.example.product_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -19,10 +21,14 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @EntityListeners(AuditingEntityListener.class)
+// Only changed columns are written, so a price or status update can't overwrite
+// stock applied concurrently by the inventory ledger's write-behind flush
+@DynamicUpdate
 public class ProductEntity {
 
+    // Time-ordered (v7) ids keep primary-key inserts at the right edge of the index
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @JdbcTypeCode(SqlTypes.UUID)
     private UUID id;
 
@@ -35,9 +41,19 @@ public class ProductEntity {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal price;
 
+    // Sellable stock; units held by open reservations are already taken out
     @Column(nullable = false)
     private int availableQuantity;
 
+    // Held by open reservations: leaves on commit (sold) or goes back to available on release
+    @Column(name = "reserved_quantity", nullable = false)
+    private int reservedQuantity;
+
+    // 0: stock lives in available_quantity. N > 0: stock is split over N
+    // product_stock_buckets rows and available_quantity stays 0
+    @Column(name = "stock_buckets", nullable = false)
+    private int stockBuckets;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -74,7 +90,6 @@ public class ProductEntity {
     /*
      * TODO:
      * - Add @Version for optimistic locking
-     * - Add reservedQuantity for inventory reservation
      * - Add price history table
      * - Add tax / discount metadata
      * - Emit PRODUCT_UPDATED events
@@ -0,0 +1,47 @@
+package com.example.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * One slice of a bucketed product's stock (see {@code ProductEntity.stockBuckets}).
+ * <p>
+ * Reductions decrement a single bucket, so concurrent orders for the same
+ * product contend on N rows instead of one. The product's stock is the sum of
+ * its buckets.
+ */
+@Entity
+@Table(
+        name = "product_stock_buckets",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_product_stock_buckets_product_bucket",
+                        columnNames = {"product_id", "bucket"}
+                )
+        }
+)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ProductStockBucketEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    // 0 .. stockBuckets - 1
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private int quantity;
+}
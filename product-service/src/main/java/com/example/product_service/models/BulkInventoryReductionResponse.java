@@ -12,7 +12,7 @@ import java.util.UUID;
 @Builder
 public class BulkInventoryReductionResponse {
 
-    private String status;                 // SUCCESS / FAILED
+    private String status;                 // SUCCESS / FAILED (rejected) / ERROR (may be retried)
     private List<UUID> processedProductIds;
     private Instant processedAt;
 }
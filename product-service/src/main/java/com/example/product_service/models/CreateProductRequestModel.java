@@ -19,6 +19,9 @@ public class CreateProductRequestModel {
     private BigDecimal price;
     private int availableQuantity;
 
+    // > 0 splits stock over that many buckets (high-contention products)
+    private int stockBuckets;
+
     private String sku;
     private String category;
     private String brand;
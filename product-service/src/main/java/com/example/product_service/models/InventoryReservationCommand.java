@@ -0,0 +1,22 @@
+package com.example.product_service.models;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ends an order's reservation; commit or release is given by the routing key.
+ * A commit also carries the order lines, so holds that already expired can be
+ * covered from available stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReservationCommand {
+
+    private UUID orderId;
+
+    private List<BulkInventoryReductionRequest.Item> items;
+}
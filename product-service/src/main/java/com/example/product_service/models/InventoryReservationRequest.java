@@ -0,0 +1,28 @@
+package com.example.product_service.models;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Holds stock for one or more orders; all of them are reserved or none is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReservationRequest {
+
+    private List<Reservation> reservations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Reservation {
+
+        private UUID orderId;
+        private List<BulkInventoryReductionRequest.Item> items;
+    }
+}
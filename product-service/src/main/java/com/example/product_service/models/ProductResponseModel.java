@@ -22,6 +22,10 @@ public class ProductResponseModel {
     private String description;
     private BigDecimal price;
     private int availableQuantity;
+    private int reservedQuantity;
+
+    // 0 unless stock is split over buckets; availableQuantity is then their sum
+    private int stockBuckets;
 
     private String sku;
     private String category;
@@ -0,0 +1,16 @@
+package com.example.product_service.models;
+
+import com.example.product_service.entity.ProductEntity;
+
+import java.util.UUID;
+
+/**
+ * Stock fields of a product, as locked or read back around a set-based update.
+ */
+public record ProductStockView(
+        UUID id,
+        String sku,
+        ProductEntity.ProductStatus status,
+        int availableQuantity
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.product_service.models;
+
+import com.example.product_service.entity.ProductEntity;
+
+import java.util.UUID;
+
+/**
+ * A product whose stock is split over buckets, read without locking its row.
+ */
+public record StockBucketsView(
+        UUID id,
+        String sku,
+        ProductEntity.ProductStatus status,
+        int buckets
+) {
+}
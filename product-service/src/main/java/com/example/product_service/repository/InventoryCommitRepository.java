@@ -0,0 +1,30 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.entity.InventoryCommitEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface InventoryCommitRepository extends JpaRepository<InventoryCommitEntity, UUID> {
+
+    /**
+     * Plain INSERT (no merge read): a concurrent commit for the same order
+     * waits on the key and then fails with a duplicate key.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO inventory_commits (order_id, committed_at)
+                VALUES (:orderId, :committedAt)
+            """, nativeQuery = true)
+    int insert(UUID orderId, Instant committedAt);
+
+    @Modifying
+    @Query("""
+                DELETE FROM InventoryCommitEntity c
+                WHERE c.committedAt < :before
+            """)
+    int deleteCommittedBefore(Instant before);
+}
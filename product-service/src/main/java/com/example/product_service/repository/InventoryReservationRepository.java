@@ -0,0 +1,54 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.entity.InventoryReservationEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservationEntity, UUID> {
+
+    List<InventoryReservationEntity> findByOrderId(UUID orderId);
+
+    List<InventoryReservationEntity> findByIdIn(Collection<UUID> ids);
+
+    boolean existsByProductId(UUID productId);
+
+    /**
+     * Oldest expired holds first; an index range scan on {@code expires_at},
+     * bounded by {@code limit}, however many reservations are open.
+     */
+    List<InventoryReservationEntity> findByExpiresAtLessThanEqualOrderByExpiresAt(Instant now, Limit limit);
+
+    @Query("""
+                SELECT DISTINCT r.orderId
+                FROM InventoryReservationEntity r
+                WHERE r.orderId IN :orderIds
+            """)
+    Set<UUID> findReservedOrderIds(Collection<UUID> orderIds);
+
+    /**
+     * Moves a hold the sweeper couldn't release out of the head of the
+     * expired range until {@code retryAt}.
+     */
+    @Modifying
+    @Query("""
+                UPDATE InventoryReservationEntity r
+                SET r.expiresAt = :retryAt
+                WHERE r.id = :id
+            """)
+    int postpone(UUID id, Instant retryAt);
+
+    @Modifying
+    @Query("""
+                DELETE FROM InventoryReservationEntity r
+                WHERE r.id IN :ids
+            """)
+    int deleteByIdIn(Collection<UUID> ids);
+}
@@ -1,17 +1,18 @@
 package com.example.product_service.repository;
 
 import com.example.product_service.entity.ProductEntity;
-import jakarta.persistence.LockModeType;
+import com.example.product_service.models.ProductStockView;
+import com.example.product_service.models.StockBucketsView;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
+public interface ProductRepository extends JpaRepository<ProductEntity, UUID>, ProductStockRepository {
 
     Optional<ProductEntity> findBySku(String sku);
 
@@ -26,17 +27,6 @@ public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
        INVENTORY-SAFE OPERATIONS
        ========================================================= */
 
-    /**
-     * Locks products during order placement Prevents concurrent overselling
-     */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("""
-                SELECT p
-                FROM ProductEntity p
-                WHERE p.id IN :ids
-            """)
-    List<ProductEntity> findAllByIdInForUpdate(List<UUID> ids);
-
     /**
      * Atomically reduce quantity for a single product Returns number of rows updated (0 or 1)
      */
@@ -48,9 +38,35 @@ public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
                   AND p.availableQuantity >= :quantity
             """)
     int reduceQuantity(UUID productId, int quantity);
+
+    /**
+     * Stock after a set-based update; inside that transaction it sees the
+     * batch's own changes.
+     */
+    @Query("""
+                SELECT new com.example.product_service.models.ProductStockView(
+                    p.id, p.sku, p.status, p.availableQuantity
+                )
+                FROM ProductEntity p
+                WHERE p.id IN :ids
+            """)
+    List<ProductStockView> findStockByIdIn(Collection<UUID> ids);
+
+    /**
+     * Bucketed products among {@code ids}; a plain read, the product rows stay unlocked.
+     */
+    @Query("""
+                SELECT new com.example.product_service.models.StockBucketsView(
+                    p.id, p.sku, p.status, p.stockBuckets
+                )
+                FROM ProductEntity p
+                WHERE p.id IN :ids
+                  AND p.stockBuckets > 0
+            """)
+    List<StockBucketsView> findBucketedByIdIn(Collection<UUID> ids);
+
     /*
      * TODO:
-     * - Add pessimistic locking for inventory reservation
      * - Add custom JPQL for batch price lookup
      * - Add projections for lightweight price queries
      */
@@ -0,0 +1,20 @@
+package com.example.product_service.repository;
+
+import java.util.UUID;
+
+/**
+ * Bucket update that needs the JDBC connection of the surrounding transaction.
+ */
+public interface ProductStockBucketJdbcRepository {
+
+    /**
+     * Takes {@code quantity} from one bucket if it holds enough, inside a
+     * savepoint that is rolled back when it doesn't: some databases (H2) keep
+     * the row locked after a conditional update re-checks a concurrently
+     * changed row and skips it, and the caller must not hold that lock while
+     * it goes on to lock the buckets in order.
+     *
+     * @return whether the quantity was taken
+     */
+    boolean takeInSavepoint(UUID productId, int bucket, int quantity);
+}
@@ -0,0 +1,45 @@
+package com.example.product_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Savepoint;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class ProductStockBucketJdbcRepositoryImpl implements ProductStockBucketJdbcRepository {
+
+    private static final String TAKE = """
+            UPDATE product_stock_buckets
+            SET quantity = quantity - ?
+            WHERE product_id = ?
+              AND bucket = ?
+              AND quantity >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean takeInSavepoint(UUID productId, int bucket, int quantity) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+
+            try (PreparedStatement statement = connection.prepareStatement(TAKE)) {
+                statement.setInt(1, quantity);
+                statement.setObject(2, productId);
+                statement.setInt(3, bucket);
+                statement.setInt(4, quantity);
+
+                if (statement.executeUpdate() == 1) {
+                    connection.releaseSavepoint(savepoint);
+                    return true;
+                }
+            }
+
+            connection.rollback(savepoint);
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.entity.ProductStockBucketEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductStockBucketRepository
+        extends JpaRepository<ProductStockBucketEntity, Long>, ProductStockBucketJdbcRepository {
+
+    @Modifying
+    @Query("""
+                UPDATE ProductStockBucketEntity b
+                SET b.quantity = b.quantity + :quantity
+                WHERE b.productId = :productId
+                  AND b.bucket = :bucket
+            """)
+    int add(UUID productId, int bucket, int quantity);
+
+    @Query("""
+                SELECT b.quantity
+                FROM ProductStockBucketEntity b
+                WHERE b.productId = :productId
+                  AND b.bucket = :bucket
+            """)
+    int quantityOf(UUID productId, int bucket);
+
+    /**
+     * Committed quantities indexed by bucket; a plain read, no row locks.
+     */
+    @Query("""
+                SELECT b.quantity
+                FROM ProductStockBucketEntity b
+                WHERE b.productId = :productId
+                ORDER BY b.bucket
+            """)
+    List<Integer> quantities(UUID productId);
+
+    @Query("""
+                SELECT COALESCE(SUM(b.quantity), 0)
+                FROM ProductStockBucketEntity b
+                WHERE b.productId = :productId
+            """)
+    int totalQuantity(UUID productId);
+
+    /**
+     * Locks every bucket of a product, always in bucket order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                SELECT b
+                FROM ProductStockBucketEntity b
+                WHERE b.productId = :productId
+                ORDER BY b.bucket
+            """)
+    List<ProductStockBucketEntity> findAllByProductIdForUpdate(UUID productId);
+
+    @Modifying
+    @Query("""
+                DELETE FROM ProductStockBucketEntity b
+                WHERE b.productId = :productId
+            """)
+    int deleteByProductId(UUID productId);
+}
@@ -0,0 +1,87 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.ProductStockView;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Set-based stock updates and row locking that Spring Data can't express
+ * as one round trip (or with a per-call lock timeout).
+ */
+public interface ProductStockRepository {
+
+    /**
+     * The database's own UUID order (unsigned, most significant bits first),
+     * which {@code UUID.compareTo} is not. Statements that lock rows one by
+     * one go out in this order so they queue behind {@code ORDER BY id} locks
+     * instead of crossing them.
+     */
+    Comparator<UUID> ID_ORDER = (a, b) -> a.getMostSignificantBits() != b.getMostSignificantBits()
+            ? Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits())
+            : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+
+    /**
+     * Locks one product row (PESSIMISTIC_WRITE), waiting at most {@code lockTimeout}.
+     *
+     * @return the managed entity, or empty if it doesn't exist
+     */
+    Optional<ProductEntity> findByIdForUpdate(UUID id, Duration lockTimeout);
+
+    /**
+     * Locks the given product rows in ascending id order, waiting at most
+     * {@code lockTimeout} for each. Every caller takes row locks in the same
+     * order, so two transactions over overlapping products queue instead of
+     * deadlocking.
+     * <p>
+     * Returns a detached snapshot taken under the lock; the locks are held
+     * until the surrounding transaction ends.
+     *
+     * @return locked rows in id order (missing ids are simply absent)
+     */
+    List<ProductStockView> lockStockInIdOrder(Collection<UUID> ids, Duration lockTimeout);
+
+    /**
+     * Sends one conditional decrement per item in a single JDBC batch. A row is
+     * only changed if the product is ACTIVE and has enough stock; one that hits
+     * zero becomes OUT_OF_STOCK in the same statement.
+     * <p>
+     * The statements go out in {@link #ID_ORDER}, so the UPDATEs themselves
+     * take the row locks in canonical order, and each may wait at most
+     * {@code lockTimeout} (JDBC query timeout, whole seconds, rounded up)
+     * before failing with a {@code CannotAcquireLockException}.
+     *
+     * @return rows updated per item, in item order (0 = not applied)
+     */
+    int[] decrementStockBatch(List<BulkInventoryReductionRequest.Item> items, Duration lockTimeout);
+
+    /**
+     * Moves each item's quantity from available to reserved, under the same
+     * conditions, lock order, timeout and OUT_OF_STOCK transition as
+     * {@link #decrementStockBatch}.
+     *
+     * @return rows updated per item, in item order (0 = not applied)
+     */
+    int[] reserveStockBatch(List<BulkInventoryReductionRequest.Item> items, Duration lockTimeout);
+
+    /**
+     * Drops each item's quantity from reserved: the units are sold.
+     *
+     * @return rows updated per item, in item order (0 = not enough reserved)
+     */
+    int[] commitReservedStockBatch(List<BulkInventoryReductionRequest.Item> items);
+
+    /**
+     * Moves each item's quantity from reserved back to available; an
+     * OUT_OF_STOCK product becomes ACTIVE again.
+     *
+     * @return rows updated per item, in item order (0 = not enough reserved)
+     */
+    int[] releaseReservedStockBatch(List<BulkInventoryReductionRequest.Item> items);
+}
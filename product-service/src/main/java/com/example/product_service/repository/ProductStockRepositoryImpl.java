@@ -0,0 +1,228 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.ProductStockView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // Portable JPA hint; Hibernate renders it as FOR UPDATE WAIT / NOWAIT where the dialect supports it
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+    // ORDER BY on the primary key makes the database take the row locks in one global order
+    private static final String LOCK_IN_ID_ORDER = """
+            SELECT p
+            FROM ProductEntity p
+            WHERE p.id IN :ids
+            ORDER BY p.id
+            """;
+
+    // SET expressions see the old row, so the CASE tests the quantity after the decrement
+    private static final String DECREMENT_STOCK = """
+            UPDATE products
+            SET available_quantity = available_quantity - ?,
+                status = CASE WHEN available_quantity - ? = 0 THEN 'OUT_OF_STOCK' ELSE status END,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+              AND status = 'ACTIVE'
+              AND available_quantity >= ?
+            """;
+
+    private static final String RESERVE_STOCK = """
+            UPDATE products
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = reserved_quantity + ?,
+                status = CASE WHEN available_quantity - ? = 0 THEN 'OUT_OF_STOCK' ELSE status END,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+              AND status = 'ACTIVE'
+              AND available_quantity >= ?
+            """;
+
+    private static final String COMMIT_RESERVED_STOCK = """
+            UPDATE products
+            SET reserved_quantity = reserved_quantity - ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+              AND reserved_quantity >= ?
+            """;
+
+    private static final String RELEASE_RESERVED_STOCK = """
+            UPDATE products
+            SET available_quantity = available_quantity + ?,
+                reserved_quantity = reserved_quantity - ?,
+                status = CASE WHEN status = 'OUT_OF_STOCK' THEN 'ACTIVE' ELSE status END,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+              AND reserved_quantity >= ?
+            """;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<ProductEntity> findByIdForUpdate(UUID id, Duration lockTimeout) {
+        return Optional.ofNullable(entityManager.find(
+                ProductEntity.class,
+                id,
+                LockModeType.PESSIMISTIC_WRITE,
+                Map.of(LOCK_TIMEOUT_HINT, timeoutMillis(lockTimeout))
+        ));
+    }
+
+    @Override
+    public List<ProductStockView> lockStockInIdOrder(Collection<UUID> ids, Duration lockTimeout) {
+        List<ProductEntity> locked = entityManager.createQuery(LOCK_IN_ID_ORDER, ProductEntity.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT_HINT, timeoutMillis(lockTimeout))
+                .getResultList();
+
+        // Updates go through JDBC, so don't leave stale copies in the persistence context
+        return locked.stream()
+                .peek(entityManager::detach)
+                .map(product -> new ProductStockView(
+                        product.getId(),
+                        product.getSku(),
+                        product.getStatus(),
+                        product.getAvailableQuantity()
+                ))
+                .toList();
+    }
+
+    // Hibernate only accepts an int (or string) for the lock timeout hint
+    private static int timeoutMillis(Duration lockTimeout) {
+        return Math.toIntExact(lockTimeout.toMillis());
+    }
+
+    @Override
+    public int[] decrementStockBatch(List<BulkInventoryReductionRequest.Item> items, Duration lockTimeout) {
+        return batch(DECREMENT_STOCK, items, lockTimeout, item -> new Object[]{
+                item.getQuantity(),
+                item.getQuantity(),
+                item.getProductId(),
+                item.getQuantity()
+        });
+    }
+
+    @Override
+    public int[] reserveStockBatch(List<BulkInventoryReductionRequest.Item> items, Duration lockTimeout) {
+        return batch(RESERVE_STOCK, items, lockTimeout, item -> new Object[]{
+                item.getQuantity(),
+                item.getQuantity(),
+                item.getQuantity(),
+                item.getProductId(),
+                item.getQuantity()
+        });
+    }
+
+    @Override
+    public int[] commitReservedStockBatch(List<BulkInventoryReductionRequest.Item> items) {
+        return batch(COMMIT_RESERVED_STOCK, items, item -> new Object[]{
+                item.getQuantity(),
+                item.getProductId(),
+                item.getQuantity()
+        });
+    }
+
+    @Override
+    public int[] releaseReservedStockBatch(List<BulkInventoryReductionRequest.Item> items) {
+        return batch(RELEASE_RESERVED_STOCK, items, item -> new Object[]{
+                item.getQuantity(),
+                item.getQuantity(),
+                item.getProductId(),
+                item.getQuantity()
+        });
+    }
+
+    // Callers hold the row locks already
+    private int[] batch(
+            String sql,
+            List<BulkInventoryReductionRequest.Item> items,
+            Function<BulkInventoryReductionRequest.Item, Object[]> parameters
+    ) {
+        return jdbcTemplate.batchUpdate(sql, items.stream().map(parameters).toList());
+    }
+
+    /**
+     * Runs the batch in {@link #ID_ORDER}, each statement capped by
+     * {@code lockTimeout}, and reports the counts back in item order.
+     */
+    private int[] batch(
+            String sql,
+            List<BulkInventoryReductionRequest.Item> items,
+            Duration lockTimeout,
+            Function<BulkInventoryReductionRequest.Item, Object[]> parameters
+    ) {
+        int[] order = IntStream.range(0, items.size())
+                .boxed()
+                .sorted(Comparator.comparing(i -> items.get(i).getProductId(), ID_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] sorted = jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setQueryTimeout(timeoutSeconds(lockTimeout));
+
+                for (int index : order) {
+                    Object[] values = parameters.apply(items.get(index));
+                    for (int p = 0; p < values.length; p++) {
+                        statement.setObject(p + 1, values[p]);
+                    }
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+            } catch (SQLException ex) {
+                // A conditional UPDATE by primary key only ever waits for row locks
+                if (timedOut(ex)) {
+                    throw new CannotAcquireLockException("Stock rows not locked within " + lockTimeout, ex);
+                }
+                throw ex;
+            }
+        });
+
+        int[] updated = new int[items.size()];
+        for (int i = 0; i < order.length; i++) {
+            updated[order[i]] = sorted[i];
+        }
+        return updated;
+    }
+
+    // Drivers wrap a failed statement in a BatchUpdateException
+    private static boolean timedOut(SQLException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException
+                    || cause instanceof SQLException sql && sql.getNextException() instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // JDBC timeouts are whole seconds; 0 would mean no limit
+    private static int timeoutSeconds(Duration lockTimeout) {
+        return Math.toIntExact(Math.max(1, (lockTimeout.toMillis() + 999) / 1000));
+    }
+}
@@ -0,0 +1,567 @@
+package com.example.product_service.services;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.utils.InventoryUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inventory engine for hot SKUs ({@code product.inventory.engine=LEDGER}).
+ * <p>
+ * Available quantities live in memory and are reduced with CAS, so concurrent
+ * orders for the same product never wait on a row lock. A multi-product
+ * reduction takes every item or none: items taken before a shortfall are put
+ * back. Before a change is acknowledged it is appended to
+ * {@code inventory_journal}; a single writer thread group-commits whatever
+ * has queued up, netted per product, so one transaction and one row per
+ * product cover many requests. A scheduled
+ * write-behind flush folds the journal into {@code products} in batches.
+ * <p>
+ * A change the journal can't take (queue full, not picked up within
+ * {@code journal-timeout}, commit failed, shutting down) is undone in memory
+ * and fails with {@link InventoryUnavailableException}, which callers may retry.
+ * <p>
+ * On startup the journal is flushed and quantities are loaded from the
+ * table, which recovers every acknowledged change after a crash.
+ * <p>
+ * The ledger is the only writer of stock while enabled, so it assumes a single
+ * product-service instance owns the inventory.
+ * <p>
+ * Metrics:
+ * - {@code product.inventory.ledger.changes}: tag {@code result} (applied, rejected)
+ * - {@code product.inventory.ledger.journal.commit}: group commit latency
+ * - {@code product.inventory.ledger.journal.queue}: changes waiting for a commit
+ */
+@Component
+@Slf4j
+public class InventoryLedger implements SmartInitializingSingleton {
+
+    public enum Engine {
+        DATABASE,
+        LEDGER
+    }
+
+    public record StockLevel(
+            UUID productId,
+            String sku,
+            int availableQuantity,
+            ProductEntity.ProductStatus status
+    ) {
+    }
+
+    private static final String INSERT_JOURNAL = """
+            INSERT INTO inventory_journal (product_id, delta, created_at)
+            VALUES (?, ?, ?)
+            """;
+
+    // SET expressions see the old row, so each CASE tests the quantity after the delta
+    private static final String APPLY_DELTA = """
+            UPDATE products
+            SET available_quantity = available_quantity + ?,
+                status = CASE
+                    WHEN status = 'ACTIVE' AND available_quantity + ? = 0 THEN 'OUT_OF_STOCK'
+                    WHEN status = 'OUT_OF_STOCK' AND available_quantity + ? > 0 THEN 'ACTIVE'
+                    ELSE status
+                END,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int journalBatchSize;
+    private final Duration journalTimeout;
+
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final BlockingQueue<JournalWrite> journalQueue;
+    // Two overlapping flushes would both sum the same journal rows
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter applied;
+    private final Counter rejected;
+    private final Timer journalCommit;
+
+    private volatile boolean running;
+    private Thread journalWriter;
+
+    public InventoryLedger(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${product.inventory.engine:DATABASE}") Engine engine,
+            @Value("${product.inventory.ledger.journal-capacity:100000}") int journalCapacity,
+            @Value("${product.inventory.ledger.journal-batch-size:1000}") int journalBatchSize,
+            @Value("${product.inventory.ledger.journal-timeout:PT5S}") Duration journalTimeout
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = engine == Engine.LEDGER;
+        this.journalBatchSize = journalBatchSize;
+        this.journalTimeout = journalTimeout;
+        this.journalQueue = new LinkedBlockingQueue<>(journalCapacity);
+
+        this.applied = meterRegistry.counter("product.inventory.ledger.changes", "result", "applied");
+        this.rejected = meterRegistry.counter("product.inventory.ledger.changes", "result", "rejected");
+        this.journalCommit = Timer.builder("product.inventory.ledger.journal.commit")
+                .register(meterRegistry);
+
+        Gauge.builder("product.inventory.ledger.journal.queue", journalQueue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /* =========================
+       STARTUP / RECOVERY
+       ========================= */
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        int recovered = flush();
+        jdbcTemplate.query(
+                "SELECT id, sku, available_quantity, status FROM products",
+                rs -> {
+                    UUID id = rs.getObject(1, UUID.class);
+                    slots.put(id, new Slot(
+                            rs.getString(2),
+                            rs.getInt(3),
+                            ProductEntity.ProductStatus.valueOf(rs.getString(4))
+                    ));
+                }
+        );
+
+        running = true;
+        journalWriter = Thread.ofPlatform()
+                .name("inventory-journal-writer")
+                .daemon()
+                .start(this::journalLoop);
+
+        log.info("Inventory ledger loaded. products={}, recoveredJournalProducts={}", slots.size(), recovered);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (journalWriter == null) {
+            return;
+        }
+        running = false;
+        journalWriter.join(TimeUnit.SECONDS.toMillis(5));
+        failQueued("Inventory journal is shutting down");
+        flush();
+    }
+
+    /* =========================
+       PRODUCT LIFECYCLE
+       ========================= */
+
+    /**
+     * Makes a new product known to the ledger once its transaction commits.
+     */
+    public void register(ProductEntity product) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> slots.put(
+                product.getId(),
+                new Slot(product.getSku(), product.getAvailableQuantity(), product.getStatus())
+        ));
+    }
+
+    public void statusChanged(UUID productId, ProductEntity.ProductStatus status) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            Slot slot = slots.get(productId);
+            if (slot != null) {
+                slot.status = status;
+            }
+        });
+    }
+
+    /**
+     * Current stock as seen by the ledger, or {@code null} when disabled / unknown.
+     */
+    public StockLevel stockLevel(UUID productId) {
+        if (!enabled) {
+            return null;
+        }
+        Slot slot = slots.get(productId);
+        return slot == null ? null : slot.level(productId, slot.available.get());
+    }
+
+    /* =========================
+       STOCK CHANGES
+       ========================= */
+
+    /**
+     * Reduces every item or none. Returns once the change is journaled, with the
+     * quantity each item left behind (exactly one caller sees 0 for a product).
+     */
+    public List<StockLevel> reduce(List<BulkInventoryReductionRequest.Item> items) {
+        List<Slot> targets = new ArrayList<>(items.size());
+        Set<UUID> seen = new HashSet<>();
+
+        for (BulkInventoryReductionRequest.Item item : items) {
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: " + item.getProductId());
+            }
+            if (!seen.add(item.getProductId())) {
+                throw new IllegalArgumentException("Duplicate product in request: " + item.getProductId());
+            }
+
+            Slot slot = slots.get(item.getProductId());
+            if (slot == null) {
+                throw new EntityNotFoundException(
+                        "One or more products not found for ids: "
+                                + items.stream().map(BulkInventoryReductionRequest.Item::getProductId).toList()
+                );
+            }
+            if (!slot.sellable()) {
+                throw new IllegalStateException("Product is not active: " + item.getProductId());
+            }
+            targets.add(slot);
+        }
+
+        // Take first, journal second: stock is never promised twice
+        List<StockLevel> levels = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BulkInventoryReductionRequest.Item item = items.get(i);
+            int remaining = targets.get(i).tryTake(item.getQuantity());
+
+            if (remaining < 0) {
+                putBack(items, targets, i);
+                rejected.increment();
+                throw new IllegalStateException("Insufficient stock for product: " + item.getProductId());
+            }
+            levels.add(targets.get(i).level(item.getProductId(), remaining));
+        }
+
+        try {
+            journal(items.stream()
+                    .map(item -> new Delta(item.getProductId(), -item.getQuantity()))
+                    .toList());
+        } catch (RuntimeException ex) {
+            putBack(items, targets, items.size());
+            throw ex;
+        }
+
+        applied.increment();
+        return levels;
+    }
+
+    /**
+     * Adds stock. Journaled before it becomes visible, so it can't be sold and then lost.
+     */
+    public StockLevel increase(UUID productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + productId);
+        }
+
+        Slot slot = slots.get(productId);
+        if (slot == null) {
+            throw new EntityNotFoundException("Product not found: " + productId);
+        }
+        if (slot.status == ProductEntity.ProductStatus.DISCONTINUED) {
+            throw new IllegalStateException("Product is discontinued: " + productId);
+        }
+
+        journal(List.of(new Delta(productId, quantity)));
+        applied.increment();
+
+        return slot.level(productId, slot.available.addAndGet(quantity));
+    }
+
+    private static void putBack(
+            List<BulkInventoryReductionRequest.Item> items,
+            List<Slot> targets,
+            int taken
+    ) {
+        for (int i = 0; i < taken; i++) {
+            targets.get(i).available.addAndGet(items.get(i).getQuantity());
+        }
+    }
+
+    /* =========================
+       JOURNAL (GROUP COMMIT)
+       ========================= */
+
+    private void journal(List<Delta> deltas) {
+        if (!running) {
+            throw new InventoryUnavailableException("Inventory journal is not running");
+        }
+
+        JournalWrite write = new JournalWrite(deltas, new CompletableFuture<>());
+
+        if (!journalQueue.offer(write)) {
+            throw new InventoryUnavailableException("Inventory journal is saturated, try again later");
+        }
+
+        boolean interrupted = false;
+        try {
+            write.committed().get(journalTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException ex) {
+            interrupted = ex instanceof InterruptedException;
+            if (journalQueue.remove(write)) {
+                // Never picked up, so never written: safe to undo
+                throw new InventoryUnavailableException("Inventory journal write timed out", ex);
+            }
+            // Already in a group commit, which always settles it: its outcome decides
+            awaitInCommit(write);
+        } catch (ExecutionException ex) {
+            throw new InventoryUnavailableException("Inventory journal write failed", ex.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitInCommit(JournalWrite write) {
+        try {
+            write.committed().join();
+        } catch (CompletionException ex) {
+            throw new InventoryUnavailableException("Inventory journal write failed", ex.getCause());
+        }
+    }
+
+    private void journalLoop() {
+        List<JournalWrite> group = new ArrayList<>(journalBatchSize);
+
+        while (running || !journalQueue.isEmpty()) {
+            try {
+                JournalWrite first = journalQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                journalQueue.drainTo(group, journalBatchSize - 1);
+
+                commit(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                // No-op for settled writes; anything else (an Error in commit) must not hang its caller
+                group.forEach(write -> write.committed().completeExceptionally(
+                        new IllegalStateException("Inventory journal writer stopped")
+                ));
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Fails writes the writer will never pick up, so their callers undo them right away.
+     */
+    private void failQueued(String reason) {
+        List<JournalWrite> pending = new ArrayList<>();
+        journalQueue.drainTo(pending);
+        pending.forEach(write -> write.committed().completeExceptionally(new IllegalStateException(reason)));
+    }
+
+    private void commit(List<JournalWrite> group) {
+        // One row per product per group: a hot SKU costs one insert, not one per order
+        Map<UUID, Integer> net = new LinkedHashMap<>();
+        group.forEach(write -> write.deltas().forEach(delta ->
+                net.merge(delta.productId(), delta.delta(), Integer::sum)
+        ));
+        List<Delta> rows = net.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new Delta(entry.getKey(), entry.getValue()))
+                .toList();
+        Timestamp now = Timestamp.from(Instant.now());
+
+        try {
+            journalCommit.record(() -> transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_JOURNAL, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setObject(1, rows.get(i).productId());
+                            ps.setInt(2, rows.get(i).delta());
+                            ps.setTimestamp(3, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    })
+            ));
+            group.forEach(write -> write.committed().complete(null));
+        } catch (RuntimeException ex) {
+            log.error("Inventory journal commit failed. changes={}", group.size(), ex);
+            group.forEach(write -> write.committed().completeExceptionally(ex));
+        }
+    }
+
+    /* =========================
+       WRITE-BEHIND FLUSH
+       ========================= */
+
+    /**
+     * Folds journaled changes into {@code products} and deletes them, atomically.
+     *
+     * @return number of products updated
+     */
+    @Scheduled(fixedDelayString = "${product.inventory.ledger.flush-interval-ms:500}")
+    public int flush() {
+        if (!enabled) {
+            return 0;
+        }
+
+        flushLock.lock();
+        try {
+            return flushJournal();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushJournal() {
+        Integer updated = transactionTemplate.execute(status -> {
+            Long upTo = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM inventory_journal", Long.class
+            );
+            if (upTo == null) {
+                return 0;
+            }
+
+            List<Delta> totals = jdbcTemplate.query(
+                    """
+                    SELECT product_id, SUM(delta)
+                    FROM inventory_journal
+                    WHERE id <= ?
+                    GROUP BY product_id
+                    """,
+                    (rs, row) -> new Delta(rs.getObject(1, UUID.class), rs.getInt(2)),
+                    upTo
+            );
+
+            jdbcTemplate.batchUpdate(APPLY_DELTA, totals, totals.size(), (ps, total) -> {
+                ps.setInt(1, total.delta());
+                ps.setInt(2, total.delta());
+                ps.setInt(3, total.delta());
+                ps.setObject(4, total.productId());
+            });
+            jdbcTemplate.update("DELETE FROM inventory_journal WHERE id <= ?", upTo);
+
+            return totals.size();
+        });
+
+        return updated == null ? 0 : updated;
+    }
+
+    /* =========================
+       INTERNAL STATE
+       ========================= */
+
+    private static final class Slot {
+
+        private final String sku;
+        private final AtomicInteger available;
+        // Lifecycle status as stored in the table; ACTIVE vs OUT_OF_STOCK is derived from stock
+        private volatile ProductEntity.ProductStatus status;
+
+        private Slot(String sku, int available, ProductEntity.ProductStatus status) {
+            this.sku = sku;
+            this.available = new AtomicInteger(available);
+            this.status = status;
+        }
+
+        private boolean sellable() {
+            return status == ProductEntity.ProductStatus.ACTIVE
+                    || status == ProductEntity.ProductStatus.OUT_OF_STOCK;
+        }
+
+        /**
+         * @return the quantity left, or -1 if there was not enough
+         */
+        private int tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return -1;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    return current - quantity;
+                }
+            }
+        }
+
+        private StockLevel level(UUID productId, int availableQuantity) {
+            ProductEntity.ProductStatus effective = !sellable()
+                    ? status
+                    : availableQuantity == 0
+                    ? ProductEntity.ProductStatus.OUT_OF_STOCK
+                    : ProductEntity.ProductStatus.ACTIVE;
+
+            return new StockLevel(productId, sku, availableQuantity, effective);
+        }
+    }
+
+    private record Delta(UUID productId, int delta) {
+    }
+
+    private record JournalWrite(List<Delta> deltas, CompletableFuture<Void> committed) {
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
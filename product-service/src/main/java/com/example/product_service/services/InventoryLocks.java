@@ -0,0 +1,109 @@
+package com.example.product_service.services;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.models.ProductStockView;
+import com.example.product_service.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Row-lock acquisition for the DATABASE inventory engine.
+ * <p>
+ * Locks are always taken in ascending product id order, either by a locking
+ * read ({@code ProductStockRepository#lockStockInIdOrder}) or by conditional
+ * updates sent in that order ({@link #lockingUpdate}), so orders that share
+ * products serialize on the first common row instead of deadlocking. Every
+ * wait is capped by {@code product.inventory.lock-timeout}; a request that
+ * can't get its rows in time fails fast with a
+ * {@link PessimisticLockingFailureException} and rolls back.
+ * <p>
+ * Metrics:
+ * - {@code product.inventory.lock.wait}: time to acquire a request's row locks,
+ *   percentile histogram, tag {@code outcome} (acquired, timeout)
+ */
+@Component
+@Slf4j
+public class InventoryLocks {
+
+    private static final String OUTCOME_ACQUIRED = "acquired";
+    private static final String OUTCOME_TIMEOUT = "timeout";
+
+    private final ProductRepository productRepository;
+    private final Duration lockTimeout;
+
+    private final Timer acquired;
+    private final Timer timedOut;
+
+    public InventoryLocks(
+            ProductRepository productRepository,
+            MeterRegistry meterRegistry,
+            @Value("${product.inventory.lock-timeout:PT2S}") Duration lockTimeout
+    ) {
+        this.productRepository = productRepository;
+        this.lockTimeout = lockTimeout;
+
+        this.acquired = lockWaitTimer(meterRegistry, OUTCOME_ACQUIRED);
+        this.timedOut = lockWaitTimer(meterRegistry, OUTCOME_TIMEOUT);
+    }
+
+    private static Timer lockWaitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("product.inventory.lock.wait")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /* =========================
+       LOCKING
+       ========================= */
+
+    /**
+     * Locks a single product row; must run inside a transaction.
+     */
+    public Optional<ProductEntity> lockProduct(UUID productId) {
+        return timed(() -> productRepository.findByIdForUpdate(productId, lockTimeout));
+    }
+
+    /**
+     * Locks all given product rows in canonical order; must run inside a transaction.
+     *
+     * @return snapshot of the locked rows in id order
+     */
+    public List<ProductStockView> lockStock(Collection<UUID> productIds) {
+        return timed(() -> productRepository.lockStockInIdOrder(productIds, lockTimeout));
+    }
+
+    /**
+     * Runs set-based updates that take their own row locks, in canonical order
+     * and within the given timeout (see {@code ProductStockRepository#decrementStockBatch});
+     * must run inside a transaction.
+     */
+    public <T> T lockingUpdate(Function<Duration, T> update) {
+        return timed(() -> update.apply(lockTimeout));
+    }
+
+    private <T> T timed(Supplier<T> lock) {
+        long start = System.nanoTime();
+        try {
+            T locked = lock.get();
+            acquired.record(Duration.ofNanos(System.nanoTime() - start));
+            return locked;
+        } catch (PessimisticLockingFailureException ex) {
+            timedOut.record(Duration.ofNanos(System.nanoTime() - start));
+            log.warn("Inventory row locks not acquired within {}", lockTimeout);
+            throw ex;
+        }
+    }
+}
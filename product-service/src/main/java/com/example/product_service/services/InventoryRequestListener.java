@@ -0,0 +1,127 @@
+package com.example.product_service.services;
+
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.BulkInventoryReductionResponse;
+import com.example.product_service.models.InventoryReservationRequest;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_REDUCE_QUEUE;
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_RESERVE_QUEUE;
+
+/**
+ * AMQP request/reply counterpart of {@code POST /v1/products/reduce} and
+ * {@code POST /v1/products/reservations}.
+ * <p>
+ * Requests arrive on {@code products.inventory.reduce.queue} and
+ * {@code products.inventory.reserve.queue}; the returned JSON
+ * is sent to the caller's reply-to (RabbitMQ direct reply-to). Prefetch and
+ * consumer concurrency bound how much work is pulled in, so a slow database
+ * pushes back on callers instead of piling up threads.
+ * <p>
+ * Reply status: {@code SUCCESS}; {@code FAILED} when the request was rejected
+ * (insufficient stock, unknown or inactive product, invalid request) and
+ * retrying won't help; {@code ERROR} when it failed for another reason (e.g.
+ * the database, or the ledger journal being unavailable) and may be retried. Nothing is applied unless it succeeded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryRequestListener {
+
+    private final ProductService productService;
+    private final InventoryReservationService inventoryReservationService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Replies are settled by the container, so this listener opts out of manual acks
+    @RabbitListener(
+            queues = PRODUCTS_INVENTORY_REDUCE_QUEUE,
+            ackMode = "AUTO",
+            concurrency = "${product.inventory.rpc.concurrency:2-5}"
+    )
+    public String handleReduceRequest(String json) {
+        BulkInventoryReductionResponse response;
+
+        try {
+            BulkInventoryReductionRequest request =
+                    objectMapper.readValue(json, BulkInventoryReductionRequest.class);
+
+            productService.reduceQuantitiesBulk(request);
+
+            response = succeeded(
+                    request.getItems()
+                            .stream()
+                            .map(BulkInventoryReductionRequest.Item::getProductId)
+                            .collect(Collectors.toList())
+            );
+
+        } catch (IllegalArgumentException | IllegalStateException | EntityNotFoundException ex) {
+            log.warn("Inventory reduction request rejected: {}", ex.getMessage());
+            response = failed("FAILED");
+        } catch (Exception ex) {
+            log.error("Inventory reduction request failed", ex);
+            response = failed("ERROR");
+        }
+
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @RabbitListener(
+            queues = PRODUCTS_INVENTORY_RESERVE_QUEUE,
+            ackMode = "AUTO",
+            concurrency = "${product.inventory.rpc.concurrency:2-5}"
+    )
+    public String handleReserveRequest(String json) {
+        BulkInventoryReductionResponse response;
+
+        try {
+            InventoryReservationRequest request =
+                    objectMapper.readValue(json, InventoryReservationRequest.class);
+
+            inventoryReservationService.reserve(request);
+
+            response = succeeded(
+                    request.getReservations()
+                            .stream()
+                            .flatMap(reservation -> reservation.getItems().stream())
+                            .map(BulkInventoryReductionRequest.Item::getProductId)
+                            .distinct()
+                            .collect(Collectors.toList())
+            );
+
+        } catch (IllegalArgumentException | IllegalStateException | EntityNotFoundException ex) {
+            log.warn("Inventory reservation request rejected: {}", ex.getMessage());
+            response = failed("FAILED");
+        } catch (Exception ex) {
+            log.error("Inventory reservation request failed", ex);
+            response = failed("ERROR");
+        }
+
+        return objectMapper.writeValueAsString(response);
+    }
+
+    private static BulkInventoryReductionResponse succeeded(List<UUID> productIds) {
+        return BulkInventoryReductionResponse.builder()
+                .status("SUCCESS")
+                .processedProductIds(productIds)
+                .processedAt(Instant.now())
+                .build();
+    }
+
+    private static BulkInventoryReductionResponse failed(String status) {
+        return BulkInventoryReductionResponse.builder()
+                .status(status)
+                .processedProductIds(List.of())
+                .processedAt(Instant.now())
+                .build();
+    }
+}
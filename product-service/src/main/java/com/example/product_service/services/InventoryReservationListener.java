@@ -0,0 +1,83 @@
+package com.example.product_service.services;
+
+import com.example.product_service.models.InventoryReservationCommand;
+import com.example.product_service.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY;
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY;
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_RESERVATION_PARKING_LOT_QUEUE;
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_INVENTORY_RESERVATION_QUEUE;
+
+/**
+ * Ends reservations on order-service's say-so: routing key
+ * {@code products.inventory.reservation.commit} when an order is paid,
+ * {@code products.inventory.reservation.release} when payment fails or the
+ * order is cancelled.
+ * <p>
+ * Commit and release are idempotent, so redeliveries are harmless. Transient
+ * database failures (lock and query timeouts) put the message back on the
+ * queue. Other database failures (constraint or schema errors) would fail the
+ * same way on every redelivery, so the command is parked on
+ * {@code products.inventory.reservation.parking-lot.queue} instead of blocking
+ * the commands behind it. Anything else is logged and dropped: a commit that
+ * can't be covered has already been reported to order-service, and a release
+ * leaves the hold to the expiry sweeper.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReservationListener {
+
+    private final InventoryReservationService inventoryReservationService;
+    private final EventCodec eventCodec;
+    private final RabbitTemplate rabbitTemplate;
+
+    @RabbitListener(queues = PRODUCTS_INVENTORY_RESERVATION_QUEUE, ackMode = "AUTO")
+    public void handleReservationCommand(Message message) {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+
+        try {
+            InventoryReservationCommand command = eventCodec.decode(message, InventoryReservationCommand.class);
+
+            if (command.getOrderId() == null) {
+                log.warn("Reservation command without orderId dropped. routingKey={}", routingKey);
+                return;
+            }
+
+            switch (routingKey) {
+                case PRODUCTS_INVENTORY_COMMIT_ROUTING_KEY -> inventoryReservationService.commit(command.getOrderId(), command.getItems());
+                case PRODUCTS_INVENTORY_RELEASE_ROUTING_KEY -> inventoryReservationService.release(command.getOrderId());
+                default -> log.warn("Unknown reservation command dropped. routingKey={}", routingKey);
+            }
+
+        } catch (TransientDataAccessException ex) {
+            log.warn("Reservation command failed, requeueing. routingKey={}, reason={}", routingKey, ex.getMessage());
+            throw new ImmediateRequeueAmqpException(ex);
+        } catch (DataAccessException ex) {
+            log.error("Reservation command failed for good, parking. routingKey={}", routingKey, ex);
+            park(message, routingKey);
+        } catch (Exception ex) {
+            log.error("Reservation command dropped. routingKey={}", routingKey, ex);
+        }
+    }
+
+    private void park(Message message, String routingKey) {
+        // Kept so the command can be replayed to the right routing key
+        message.getMessageProperties().setHeader("x-original-routing-key", routingKey);
+        try {
+            rabbitTemplate.send("", PRODUCTS_INVENTORY_RESERVATION_PARKING_LOT_QUEUE, message);
+        } catch (AmqpException ex) {
+            log.error("Reservation command lost, parking failed. routingKey={}", routingKey, ex);
+        }
+    }
+}
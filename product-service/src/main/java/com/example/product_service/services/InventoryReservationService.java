@@ -0,0 +1,432 @@
+package com.example.product_service.services;
+
+import com.example.product_service.entity.InventoryReservationEntity;
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.InventoryReservationRequest;
+import com.example.product_service.models.ProductStockView;
+import com.example.product_service.repository.InventoryCommitRepository;
+import com.example.product_service.repository.InventoryReservationRepository;
+import com.example.product_service.utils.InventoryUnavailableException;
+import com.example.product_service.utils.RabbitMQSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stock holds for orders that aren't paid yet.
+ * <p>
+ * Reserving moves units from available to reserved and records one row per
+ * order line with an {@code expires_at}. The hold then ends exactly once:
+ * - commit (order PAID): reserved units are sold
+ * - release (payment FAILED / order CANCELLED): units go back to available
+ * - expiry: the sweeper releases holds whose {@code expires_at} has passed
+ * <p>
+ * Expiry is one indexed range scan ({@code expires_at <= now}, oldest first,
+ * {@code sweep-batch-size} rows per transaction) on a fixed delay, so cost
+ * follows the number of expiring holds, not the number of open ones, and no
+ * timer or thread exists per reservation. A hold that fails to release is
+ * pushed back by {@code sweep-retry-delay} instead of blocking the head of
+ * the range.
+ * <p>
+ * Reservation rows are only deleted after locking their products (in
+ * canonical order, see {@link InventoryLocks}) and re-reading them, so a
+ * commit racing a release or the sweeper is applied once and the loser sees
+ * nothing left. Release is idempotent for the same reason.
+ * <p>
+ * A commit whose holds already expired takes the order lines it carries from
+ * available stock instead; if that is refused too, the failure is reported to
+ * order-service ({@code products.inventory.reservation.commit.failed}). Every
+ * commit first writes an {@code inventory_commits} marker for the order, so a
+ * redelivered commit is a no-op instead of a second sale.
+ * <p>
+ * Requires the DATABASE inventory engine: with {@code product.inventory.engine=LEDGER}
+ * startup fails unless {@code product.inventory.reservations.enabled=false}, and
+ * reservation requests are then answered as unavailable (503 / {@code ERROR}),
+ * never as a stock rejection.
+ * <p>
+ * Metrics:
+ * - {@code product.inventory.reservations}: order lines, tag {@code outcome} (reserved, committed, released, expired)
+ * - {@code product.inventory.reservations.commit_missed}: committed order lines whose hold had expired, taken from available
+ * - {@code product.inventory.reservations.commit_failed}: commits that could not be covered, reported to order-service
+ * - {@code product.inventory.reservations.sweep_failed}: expired holds whose release failed and was postponed
+ */
+@Service
+@Slf4j
+public class InventoryReservationService {
+
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryCommitRepository commitRepository;
+    private final ProductService productService;
+    private final InventoryLocks inventoryLocks;
+    private final InventoryLedger inventoryLedger;
+    private final RabbitMQSender rabbitMQSender;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+    private final Duration sweepRetryDelay;
+    private final Duration commitRetention;
+
+    private final Counter reserved;
+    private final Counter committed;
+    private final Counter released;
+    private final Counter expired;
+    private final Counter commitMissed;
+    private final Counter commitFailed;
+    private final Counter sweepFailed;
+
+    public InventoryReservationService(
+            InventoryReservationRepository reservationRepository,
+            InventoryCommitRepository commitRepository,
+            ProductService productService,
+            InventoryLocks inventoryLocks,
+            InventoryLedger inventoryLedger,
+            RabbitMQSender rabbitMQSender,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${product.inventory.reservations.enabled:true}") boolean enabled,
+            @Value("${product.inventory.reservations.ttl:PT15M}") Duration ttl,
+            @Value("${product.inventory.reservations.sweep-batch-size:500}") int sweepBatchSize,
+            @Value("${product.inventory.reservations.sweep-retry-delay:PT1M}") Duration sweepRetryDelay,
+            @Value("${product.inventory.reservations.commit-retention:P7D}") Duration commitRetention
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.commitRepository = commitRepository;
+        this.productService = productService;
+        this.inventoryLocks = inventoryLocks;
+        this.inventoryLedger = inventoryLedger;
+        this.rabbitMQSender = rabbitMQSender;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.sweepBatchSize = sweepBatchSize;
+        this.sweepRetryDelay = sweepRetryDelay;
+        this.commitRetention = commitRetention;
+
+        this.reserved = meterRegistry.counter("product.inventory.reservations", "outcome", "reserved");
+        this.committed = meterRegistry.counter("product.inventory.reservations", "outcome", "committed");
+        this.released = meterRegistry.counter("product.inventory.reservations", "outcome", "released");
+        this.expired = meterRegistry.counter("product.inventory.reservations", "outcome", "expired");
+        this.commitMissed = meterRegistry.counter("product.inventory.reservations.commit_missed");
+        this.commitFailed = meterRegistry.counter("product.inventory.reservations.commit_failed");
+        this.sweepFailed = meterRegistry.counter("product.inventory.reservations.sweep_failed");
+
+        // Fail the deployment, not every order: callers would read a per-request refusal as "out of stock"
+        if (enabled && inventoryLedger.enabled()) {
+            throw new IllegalStateException(
+                    "Inventory reservations require product.inventory.engine=DATABASE; with LEDGER set "
+                            + "product.inventory.reservations.enabled=false and order.inventory.mode=REDUCE in order-service"
+            );
+        }
+    }
+
+    /* =========================
+       RESERVE
+       ========================= */
+
+    /**
+     * Holds stock for every order in the request, or for none. Orders that
+     * already hold stock are skipped, so a retried request is harmless.
+     */
+    public void reserve(InventoryReservationRequest request) {
+        if (request == null || request.getReservations() == null || request.getReservations().isEmpty()) {
+            throw new IllegalArgumentException("Inventory reservation request is empty");
+        }
+        requireEnabled();
+
+        transactionTemplate.executeWithoutResult(status -> reserveInDatabase(request.getReservations()));
+    }
+
+    private void reserveInDatabase(List<InventoryReservationRequest.Reservation> reservations) {
+
+        // 1️⃣ Skip orders that already hold stock (retries)
+        Set<UUID> orderIds = new HashSet<>();
+        for (InventoryReservationRequest.Reservation reservation : reservations) {
+            if (reservation.getOrderId() == null || reservation.getItems() == null || reservation.getItems().isEmpty()) {
+                throw new IllegalArgumentException("Reservation needs an orderId and items");
+            }
+            if (!orderIds.add(reservation.getOrderId())) {
+                throw new IllegalArgumentException("Duplicate order in request: " + reservation.getOrderId());
+            }
+        }
+
+        Set<UUID> alreadyReserved = reservationRepository.findReservedOrderIds(orderIds);
+
+        List<InventoryReservationRequest.Reservation> pending = reservations.stream()
+                .filter(reservation -> !alreadyReserved.contains(reservation.getOrderId()))
+                .toList();
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 2️⃣ Take the summed quantities from available (locks, validates, emits events)
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        pending.forEach(reservation -> reservation.getItems().forEach(item ->
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum)));
+
+        productService.reserveStock(toItems(quantities));
+
+        // 3️⃣ One hold per order line
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+
+        List<InventoryReservationEntity> rows = new ArrayList<>();
+        for (InventoryReservationRequest.Reservation reservation : pending) {
+            Map<UUID, Integer> lines = new LinkedHashMap<>();
+            reservation.getItems().forEach(item ->
+                    lines.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+            lines.forEach((productId, quantity) -> rows.add(
+                    InventoryReservationEntity.builder()
+                            .orderId(reservation.getOrderId())
+                            .productId(productId)
+                            .quantity(quantity)
+                            .expiresAt(expiresAt)
+                            .createdAt(now)
+                            .build()
+            ));
+        }
+
+        reservationRepository.saveAll(rows);
+        reserved.increment(rows.size());
+
+        log.info("Inventory reserved. orders={}, expiresAt={}", pending.size(), expiresAt);
+    }
+
+    /* =========================
+       COMMIT / RELEASE
+       ========================= */
+
+    /**
+     * The order is paid: its reserved units are sold. Lines whose hold already
+     * expired are taken from available stock, all or nothing; a commit that
+     * can't be covered is reported to order-service.
+     *
+     * @param items the order lines; may be empty for holds that can't have expired
+     * @throws IllegalStateException if the commit could not be covered
+     */
+    public void commit(UUID orderId, List<BulkInventoryReductionRequest.Item> items) {
+        requireEnabled();
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    commitInDatabase(orderId, items == null ? List.of() : items));
+        } catch (IllegalArgumentException | IllegalStateException | EntityNotFoundException ex) {
+            commitFailed.increment();
+            rabbitMQSender.sendInventoryCommitFailed(Map.of(
+                    "eventType", "INVENTORY_COMMIT_FAILED",
+                    "orderId", orderId,
+                    "reason", String.valueOf(ex.getMessage()),
+                    "timestamp", System.currentTimeMillis()
+            ));
+
+            log.error("Inventory reservation not committed, reported to order-service. orderId={}, reason={}",
+                    orderId, ex.getMessage());
+            throw new IllegalStateException("Inventory commit failed for order " + orderId + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private void commitInDatabase(UUID orderId, List<BulkInventoryReductionRequest.Item> items) {
+
+        // 1️⃣ Marker first: a concurrent commit of the same order waits here, a redelivered one stops
+        if (commitRepository.existsById(orderId)) {
+            log.info("Inventory reservation already committed. orderId={}", orderId);
+            return;
+        }
+        commitRepository.insert(orderId, Instant.now());
+
+        // 2️⃣ Sell what is still held
+        List<InventoryReservationEntity> ended = endHolds(reservationRepository.findByOrderId(orderId), true);
+
+        // 3️⃣ Lines without a hold (expired) come from available stock
+        Set<UUID> held = ended.stream()
+                .map(InventoryReservationEntity::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<UUID, Integer> missing = new LinkedHashMap<>();
+        items.stream()
+                .filter(item -> !held.contains(item.getProductId()))
+                .forEach(item -> missing.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        if (ended.isEmpty() && missing.isEmpty()) {
+            throw new IllegalStateException("No reservation left to commit and no order lines to cover it");
+        }
+
+        if (!missing.isEmpty()) {
+            productService.sellStock(toItems(missing));
+            commitMissed.increment(missing.size());
+            log.warn("Expired reservation committed from available stock. orderId={}, lines={}",
+                    orderId, missing.size());
+        }
+
+        committed.increment(ended.size());
+        log.info("Inventory reservation committed. orderId={}", orderId);
+    }
+
+    /**
+     * The order won't be paid: its reserved units go back on sale.
+     */
+    public void release(UUID orderId) {
+        requireEnabled();
+
+        int lines = transactionTemplate.execute(status ->
+                endHolds(reservationRepository.findByOrderId(orderId), false)).size();
+
+        if (lines > 0) {
+            released.increment(lines);
+            log.info("Inventory reservation released. orderId={}", orderId);
+        }
+    }
+
+    /* =========================
+       EXPIRY SWEEP
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${product.inventory.reservations.sweep-interval-ms:1000}")
+    public void sweepExpired() {
+        if (inventoryLedger.enabled()) {
+            return;
+        }
+
+        // Batch after batch until the expired range is drained
+        int swept;
+        do {
+            swept = releaseExpired(sweepBatchSize);
+        } while (swept == sweepBatchSize);
+
+        Integer pruned = transactionTemplate.execute(status ->
+                commitRepository.deleteCommittedBefore(Instant.now().minus(commitRetention)));
+        if (pruned != null && pruned > 0) {
+            log.debug("Old commit markers pruned. count={}", pruned);
+        }
+    }
+
+    /**
+     * Releases up to {@code limit} expired holds in one transaction.
+     *
+     * @return holds found expired (some may have been ended concurrently)
+     */
+    public int releaseExpired(int limit) {
+        List<InventoryReservationEntity> batch =
+                reservationRepository.findByExpiresAtLessThanEqualOrderByExpiresAt(Instant.now(), Limit.of(limit));
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        int lines;
+        try {
+            lines = transactionTemplate.execute(status -> endHolds(batch, false)).size();
+        } catch (RuntimeException ex) {
+            // The same oldest rows come back every tick: isolate the bad one
+            log.warn("Expired reservation batch failed, releasing one by one. reason={}", ex.getMessage());
+            lines = releaseOneByOne(batch);
+        }
+        expired.increment(lines);
+
+        log.info("Expired inventory reservations released. lines={}", lines);
+        return batch.size();
+    }
+
+    private int releaseOneByOne(List<InventoryReservationEntity> batch) {
+        int lines = 0;
+
+        for (InventoryReservationEntity row : batch) {
+            try {
+                lines += transactionTemplate.execute(status -> endHolds(List.of(row), false)).size();
+            } catch (RuntimeException ex) {
+                transactionTemplate.executeWithoutResult(status ->
+                        reservationRepository.postpone(row.getId(), Instant.now().plus(sweepRetryDelay)));
+                sweepFailed.increment();
+
+                log.error("Expired reservation not released, retrying in {}. reservationId={}, orderId={}",
+                        sweepRetryDelay, row.getId(), row.getOrderId(), ex);
+            }
+        }
+
+        return lines;
+    }
+
+    /* =========================
+       INTERNAL
+       ========================= */
+
+    /**
+     * Ends the given holds under their products' row locks.
+     *
+     * @param candidates rows read without locks; only those still present
+     *                   once the locks are held are ended
+     * @return the order lines actually ended
+     */
+    private List<InventoryReservationEntity> endHolds(Collection<InventoryReservationEntity> candidates, boolean commit) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // 1️⃣ Lock the products first: every reservation change happens under these locks
+        Set<UUID> productIds = candidates.stream()
+                .map(InventoryReservationEntity::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<UUID, ProductStockView> locked = inventoryLocks.lockStock(productIds)
+                .stream()
+                .collect(Collectors.toMap(ProductStockView::id, view -> view));
+
+        // 2️⃣ Re-read: whatever a concurrent commit / release / sweep ended is gone now
+        List<InventoryReservationEntity> live = reservationRepository.findByIdIn(
+                candidates.stream().map(InventoryReservationEntity::getId).toList()
+        );
+
+        if (live.isEmpty()) {
+            return List.of();
+        }
+
+        reservationRepository.deleteByIdIn(live.stream().map(InventoryReservationEntity::getId).toList());
+
+        // 3️⃣ Apply the summed quantities to the products
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        live.forEach(row -> quantities.merge(row.getProductId(), row.getQuantity(), Integer::sum));
+
+        if (commit) {
+            productService.commitReservedStock(toItems(quantities));
+        } else {
+            productService.releaseReservedStock(toItems(quantities), locked);
+        }
+
+        return live;
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new InventoryUnavailableException("Inventory reservations are disabled in product-service");
+        }
+    }
+
+    private static List<BulkInventoryReductionRequest.Item> toItems(Map<UUID, Integer> quantities) {
+        return quantities.entrySet().stream()
+                .map(entry -> BulkInventoryReductionRequest.Item.builder()
+                        .productId(entry.getKey())
+                        .quantity(entry.getValue())
+                        .build())
+                .toList();
+    }
+}
@@ -4,19 +4,29 @@ import com.example.product_service.entity.ProductEntity;
 import com.example.product_service.models.BulkInventoryReductionRequest;
 import com.example.product_service.models.CreateProductRequestModel;
 import com.example.product_service.models.ProductResponseModel;
+import com.example.product_service.models.ProductStockView;
+import com.example.product_service.models.StockBucketsView;
+import com.example.product_service.repository.InventoryReservationRepository;
 import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.repository.ProductStockRepository;
 import com.example.product_service.utils.RabbitMQSender;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +39,11 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final RabbitMQSender rabbitMQSender;
+    private final InventoryLedger inventoryLedger;
+    private final InventoryLocks inventoryLocks;
+    private final StockBuckets stockBuckets;
+    private final InventoryReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
 
     /* =========================
        CREATE
@@ -50,6 +65,13 @@ public class ProductService {
 
         ProductEntity saved = productRepository.save(product);
 
+        if (request.getStockBuckets() > 0) {
+            requireBucketsSupported();
+            stockBuckets.redistribute(saved, saved.getAvailableQuantity(), request.getStockBuckets());
+        }
+
+        inventoryLedger.register(saved);
+
         Map<String, Object> event = baseEvent(saved);
         event.put("eventType", "PRODUCT_CREATED");
 
@@ -84,6 +106,16 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Products found among {@code productIds}; unknown ids are left out instead of failing the lookup.
+     */
+    public List<ProductResponseModel> getProductsByIds(List<UUID> productIds) {
+        return productRepository.findByIdIn(productIds)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     public List<ProductResponseModel> getProductsByStatus(ProductEntity.ProductStatus status) {
         return productRepository.findByStatus(status)
                 .stream()
@@ -102,10 +134,28 @@ public class ProductService {
        INVENTORY OPERATIONS
        ========================= */
 
-    @Transactional
+    /**
+     * Runs without an outer transaction: the ledger engine must not hold a
+     * connection while it waits for its journal commit.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void reduceQuantity(UUID productId, int quantity) {
+        if (inventoryLedger.enabled()) {
+            reduceInLedger(List.of(item(productId, quantity)));
+            return;
+        }
 
-        ProductEntity product = getActiveProduct(productId);
+        transactionTemplate.executeWithoutResult(status -> reduceQuantityInDatabase(productId, quantity));
+    }
+
+    private void reduceQuantityInDatabase(UUID productId, int quantity) {
+
+        if (!stockBuckets.bucketed(List.of(productId)).isEmpty()) {
+            reduceStock(List.of(item(productId, quantity)), productRepository::decrementStockBatch);
+            return;
+        }
+
+        ProductEntity product = lockActiveProduct(productId);
 
         if (product.getAvailableQuantity() < quantity) {
             throw new IllegalStateException("Insufficient stock for product: " + productId);
@@ -120,32 +170,44 @@ public class ProductService {
 
         ProductEntity saved = productRepository.save(product);
 
-        Map<String, Object> event = baseEvent(saved);
-        event.put("eventType", "INVENTORY_REDUCED");
-        event.put("quantityReduced", quantity);
-
-        // 📊 Analytics
-        rabbitMQSender.sendEventToAnalytics(event);
+        publishInventoryReduced(baseEvent(saved), quantity, outOfStock);
 
-        // 🏭 Warehouse must know if product is OUT_OF_STOCK
-        if (outOfStock) {
-            Map<String, Object> warehouseEvent = new HashMap<>(event);
-            warehouseEvent.put("eventType", "OUT_OF_STOCK");
+        log.info("Inventory reduced. productId={}, remaining={}",
+                productId, saved.getAvailableQuantity());
+    }
 
-            rabbitMQSender.sendInventoryUpdateToWarehouse(
-                    DEFAULT_WAREHOUSE_ID,
-                    warehouseEvent
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void increaseQuantity(UUID productId, int quantity) {
+        if (inventoryLedger.enabled()) {
+            InventoryLedger.StockLevel level = inventoryLedger.increase(productId, quantity);
+
+            publishInventoryIncreased(
+                    baseEvent(level),
+                    quantity,
+                    level.status() == ProductEntity.ProductStatus.ACTIVE
+                            && level.availableQuantity() == quantity
             );
+
+            log.info("Inventory increased. productId={}, available={}",
+                    productId, level.availableQuantity());
+            return;
         }
 
-        log.info("Inventory reduced. productId={}, remaining={}",
-                productId, saved.getAvailableQuantity());
+        transactionTemplate.executeWithoutResult(status -> increaseQuantityInDatabase(productId, quantity));
     }
 
-    @Transactional
-    public void increaseQuantity(UUID productId, int quantity) {
+    private void increaseQuantityInDatabase(UUID productId, int quantity) {
 
-        ProductEntity product = getActiveOrOutOfStockProduct(productId);
+        StockBucketsView bucketed = stockBuckets.bucketed(List.of(productId)).get(productId);
+        if (bucketed != null) {
+            if (bucketed.status() == ProductEntity.ProductStatus.DISCONTINUED) {
+                throw new IllegalStateException("Product is discontinued: " + productId);
+            }
+            putIntoBuckets(bucketed, quantity);
+            return;
+        }
+
+        ProductEntity product = lockActiveOrOutOfStockProduct(productId);
 
         product.setAvailableQuantity(product.getAvailableQuantity() + quantity);
 
@@ -159,27 +221,14 @@ public class ProductService {
 
         ProductEntity saved = productRepository.save(product);
 
-        Map<String, Object> event = baseEvent(saved);
-        event.put("eventType", "INVENTORY_INCREASED");
-        event.put("quantityAdded", quantity);
-
-        // 📊 Analytics
-        rabbitMQSender.sendEventToAnalytics(event);
-
-        if (backInStock) {
-            Map<String, Object> backInStockEvent = new HashMap<>(event);
-            backInStockEvent.put("eventType", "PRODUCT_BACK_IN_STOCK");
-
-            // ⏳ Delayed user notification (TTL)
-            rabbitMQSender.sendDelayedUserNotification(backInStockEvent);
-        }
+        publishInventoryIncreased(baseEvent(saved), quantity, backInStock);
 
         log.info("Inventory increased. productId={}, available={}",
                 productId, saved.getAvailableQuantity());
     }
 
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void reduceQuantitiesBulk(
             BulkInventoryReductionRequest request
     ) {
@@ -187,86 +236,371 @@ public class ProductService {
             throw new IllegalArgumentException("Inventory reduction request is empty");
         }
 
-        // 1️⃣ Collect product IDs
-        List<UUID> productIds = request.getItems()
-                .stream()
-                .map(BulkInventoryReductionRequest.Item::getProductId)
-                .toList();
+        if (inventoryLedger.enabled()) {
+            reduceInLedger(request.getItems());
+            return;
+        }
 
-        // 2️⃣ Lock all products (prevents overselling)
-        List<ProductEntity> products =
-                productRepository.findAllByIdInForUpdate(productIds);
+        transactionTemplate.executeWithoutResult(status -> reduceQuantitiesBulkInDatabase(request));
+    }
 
-        if (products.size() != productIds.size()) {
-            throw new EntityNotFoundException(
-                    "One or more products not found for ids: " + productIds
-            );
+    private void reduceQuantitiesBulkInDatabase(
+            BulkInventoryReductionRequest request
+    ) {
+        reduceStock(request.getItems(), productRepository::decrementStockBatch);
+
+        log.info(
+                "Bulk inventory reduction completed for products: {}",
+                productIds(request.getItems())
+        );
+    }
+
+    /**
+     * Plain products get one batch of conditional updates, sent in canonical
+     * id order so the UPDATEs take their row locks in that order (bounded
+     * wait); bucketed products then take from one bucket each, without
+     * locking their product row. Any rejected item aborts the request and the
+     * transaction rolls back.
+     *
+     * @param batch the conditional update for the plain items (decrement or reserve)
+     */
+    private void reduceStock(
+            List<BulkInventoryReductionRequest.Item> items,
+            BiFunction<List<BulkInventoryReductionRequest.Item>, Duration, int[]> batch
+    ) {
+        List<UUID> productIds = productIds(items);
+
+        if (new HashSet<>(productIds).size() != productIds.size()) {
+            throw new IllegalArgumentException("Duplicate product in request: " + productIds);
         }
 
-        // 3️⃣ Index products
-        Map<UUID, ProductEntity> productMap =
-                products.stream()
-                        .collect(Collectors.toMap(ProductEntity::getId, p -> p));
+        Map<UUID, StockBucketsView> bucketed = stockBuckets.bucketed(productIds);
 
-        // 4️⃣ Validate stock
-        for (BulkInventoryReductionRequest.Item item : request.getItems()) {
+        List<BulkInventoryReductionRequest.Item> plain = items.stream()
+                .filter(item -> !bucketed.containsKey(item.getProductId()))
+                .toList();
 
-            ProductEntity product = productMap.get(item.getProductId());
+        // Bucket locks come after product row locks, in product id order
+        List<BulkInventoryReductionRequest.Item> split = items.stream()
+                .filter(item -> bucketed.containsKey(item.getProductId()))
+                .sorted(Comparator.comparing(BulkInventoryReductionRequest.Item::getProductId, ProductStockRepository.ID_ORDER))
+                .toList();
 
-            if (product.getStatus() != ProductEntity.ProductStatus.ACTIVE) {
-                throw new IllegalStateException(
-                        "Product is not active: " + product.getId()
-                );
+        if (!plain.isEmpty()) {
+            // 1️⃣ Conditional update for every plain item (one round trip, locks in id order)
+            int[] updated = inventoryLocks.lockingUpdate(lockTimeout -> batch.apply(plain, lockTimeout));
+
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw rejectedReduction(plain.get(i));
+                }
             }
+        }
+
+        // 2️⃣ Bucketed products
+        for (BulkInventoryReductionRequest.Item item : split) {
+            StockBucketsView view = bucketed.get(item.getProductId());
 
-            if (product.getAvailableQuantity() < item.getQuantity()) {
+            if (view.status() != ProductEntity.ProductStatus.ACTIVE) {
+                throw new IllegalStateException("Product is not active: " + view.id());
+            }
+            if (stockBuckets.take(view, item.getQuantity())) {
+                stockBuckets.settleAfterCommit(view.id(), this::publishSettled);
+            }
+        }
+
+        // 3️⃣ Events; a plain product that reached zero was flipped to OUT_OF_STOCK by the batch,
+        //    a bucketed one is flipped (and announced) by the settle after commit
+        if (!plain.isEmpty()) {
+            publishReductions(plain, productRepository.findStockByIdIn(productIds(plain)));
+        }
+
+        for (BulkInventoryReductionRequest.Item item : split) {
+            StockBucketsView view = bucketed.get(item.getProductId());
+
+            publishInventoryReduced(
+                    baseEvent(view.id(), view.sku(), view.status(), stockBuckets.total(view.id())),
+                    item.getQuantity(),
+                    false
+            );
+        }
+    }
+
+    /**
+     * Explains why a conditional update matched no row.
+     */
+    private RuntimeException rejectedReduction(BulkInventoryReductionRequest.Item item) {
+        return productRepository.findStockByIdIn(List.of(item.getProductId()))
+                .stream()
+                .findFirst()
+                .<RuntimeException>map(view ->
+                        view.status() != ProductEntity.ProductStatus.ACTIVE
+                                ? new IllegalStateException("Product is not active: " + view.id())
+                                : new IllegalStateException("Insufficient stock for product: " + view.id())
+                )
+                .orElseGet(() -> new EntityNotFoundException(
+                        "One or more products not found for ids: " + item.getProductId()
+                ));
+    }
+
+    // The batch conditions can't fail under the row locks, but stay as a guard
+    private static void requireApplied(
+            int[] updated,
+            List<BulkInventoryReductionRequest.Item> items
+    ) {
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
                 throw new IllegalStateException(
-                        "Insufficient stock for product: " + product.getId()
+                        "Stock changed under lock for product: " + items.get(i).getProductId()
                 );
             }
         }
+    }
 
-        // 5️⃣ Reduce quantities
-        for (BulkInventoryReductionRequest.Item item : request.getItems()) {
+    // Stock as the batch left it; rows stay locked until commit
+    private void publishReductions(
+            List<BulkInventoryReductionRequest.Item> items,
+            List<ProductStockView> after
+    ) {
+        Map<UUID, ProductStockView> stock = after.stream()
+                .collect(Collectors.toMap(ProductStockView::id, view -> view));
 
-            ProductEntity product = productMap.get(item.getProductId());
+        for (BulkInventoryReductionRequest.Item item : items) {
+            ProductStockView view = stock.get(item.getProductId());
 
-            product.setAvailableQuantity(
-                    product.getAvailableQuantity() - item.getQuantity()
+            publishInventoryReduced(
+                    baseEvent(view.id(), view.sku(), view.status(), view.availableQuantity()),
+                    item.getQuantity(),
+                    view.availableQuantity() == 0
             );
+        }
+    }
 
-            boolean outOfStock = product.getAvailableQuantity() == 0;
-            if (outOfStock) {
-                product.setStatus(ProductEntity.ProductStatus.OUT_OF_STOCK);
-            }
+    /**
+     * Ledger engine: CAS in memory + group-committed journal, no row locks.
+     */
+    private void reduceInLedger(List<BulkInventoryReductionRequest.Item> items) {
+        List<InventoryLedger.StockLevel> levels = inventoryLedger.reduce(items);
 
-            ProductEntity saved = productRepository.save(product);
+        for (int i = 0; i < items.size(); i++) {
+            InventoryLedger.StockLevel level = levels.get(i);
 
-            // 📊 Analytics event
-            Map<String, Object> event = baseEvent(saved);
-            event.put("eventType", "INVENTORY_REDUCED");
-            event.put("quantityReduced", item.getQuantity());
+            publishInventoryReduced(
+                    baseEvent(level),
+                    items.get(i).getQuantity(),
+                    level.availableQuantity() == 0
+            );
+        }
 
-            rabbitMQSender.sendEventToAnalytics(event);
+        log.debug("Ledger inventory reduction applied. items={}", items.size());
+    }
 
-            // 🏭 Warehouse notification if OUT_OF_STOCK
-            if (outOfStock) {
-                Map<String, Object> warehouseEvent = new HashMap<>(event);
-                warehouseEvent.put("eventType", "OUT_OF_STOCK");
+    /* =========================
+       RESERVED STOCK (called by InventoryReservationService)
+       ========================= */
 
-                rabbitMQSender.sendInventoryUpdateToWarehouse(
-                        DEFAULT_WAREHOUSE_ID,
-                        warehouseEvent
-                );
-            }
+    /**
+     * Moves stock from available to reserved, one item per product. Emits the
+     * same reduction events as a direct reduction: the units are no longer
+     * sellable. Bucketed products have no reserved column: their units are
+     * taken from a bucket and the hold row alone remembers them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void reserveStock(List<BulkInventoryReductionRequest.Item> items) {
+        reduceStock(items, productRepository::reserveStockBatch);
+    }
+
+    /**
+     * Sells units straight from available stock, for a commit whose holds had
+     * already expired. Same checks and events as a direct reduction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void sellStock(List<BulkInventoryReductionRequest.Item> items) {
+        reduceStock(items, productRepository::decrementStockBatch);
+    }
+
+    /**
+     * Reserved units are sold; available stock doesn't change. Caller holds the row locks.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void commitReservedStock(List<BulkInventoryReductionRequest.Item> items) {
+        // Bucketed units left the buckets when they were reserved
+        Map<UUID, StockBucketsView> bucketed = stockBuckets.bucketed(productIds(items));
+
+        List<BulkInventoryReductionRequest.Item> plain = items.stream()
+                .filter(item -> !bucketed.containsKey(item.getProductId()))
+                .toList();
+
+        if (!plain.isEmpty()) {
+            requireApplied(productRepository.commitReservedStockBatch(plain), plain);
         }
+    }
 
-        log.info(
-                "Bulk inventory reduction completed for products: {}",
-                productIds
+    /**
+     * Reserved units go back on sale. Caller holds the row locks and passes
+     * the snapshot it took with them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void releaseReservedStock(
+            List<BulkInventoryReductionRequest.Item> items,
+            Map<UUID, ProductStockView> locked
+    ) {
+        Map<UUID, StockBucketsView> bucketed = stockBuckets.bucketed(productIds(items));
+
+        List<BulkInventoryReductionRequest.Item> plain = items.stream()
+                .filter(item -> !bucketed.containsKey(item.getProductId()))
+                .toList();
+
+        if (!plain.isEmpty()) {
+            requireApplied(productRepository.releaseReservedStockBatch(plain), plain);
+        }
+
+        items.stream()
+                .filter(item -> bucketed.containsKey(item.getProductId()))
+                .sorted(Comparator.comparing(BulkInventoryReductionRequest.Item::getProductId, ProductStockRepository.ID_ORDER))
+                .forEach(item -> putIntoBuckets(bucketed.get(item.getProductId()), item.getQuantity()));
+
+        for (BulkInventoryReductionRequest.Item item : plain) {
+            ProductStockView view = locked.get(item.getProductId());
+            boolean backInStock = view.status() == ProductEntity.ProductStatus.OUT_OF_STOCK;
+
+            publishInventoryIncreased(
+                    baseEvent(
+                            view.id(),
+                            view.sku(),
+                            backInStock ? ProductEntity.ProductStatus.ACTIVE : view.status(),
+                            view.availableQuantity() + item.getQuantity()
+                    ),
+                    item.getQuantity(),
+                    backInStock
+            );
+        }
+    }
+
+    /* =========================
+       STOCK BUCKETS
+       ========================= */
+
+    /**
+     * Splits the product's stock over {@code count} buckets, evenly; the
+     * current count rebalances, 0 moves the stock back to the product row.
+     * Switching between the two modes waits until the product has no open
+     * reservations, since they are held differently in each.
+     */
+    @Transactional
+    public ProductResponseModel configureStockBuckets(UUID productId, int count) {
+        requireBucketsSupported();
+
+        // Plain reserves hold the product row, bucketed ones only their bucket:
+        // both locks are needed before a missing hold row can be trusted
+        ProductEntity product = lockProduct(productId);
+        int total = stockBuckets.lockTotal(product);
+
+        boolean switchesMode = (product.getStockBuckets() > 0) != (count > 0);
+        if (switchesMode && reservationRepository.existsByProductId(productId)) {
+            throw new IllegalStateException("Product has open reservations: " + productId);
+        }
+
+        stockBuckets.redistribute(product, total, count);
+
+        return mapToResponse(productRepository.save(product));
+    }
+
+    private void putIntoBuckets(StockBucketsView view, int quantity) {
+        stockBuckets.put(view, quantity);
+        stockBuckets.settleAfterCommit(view.id(), this::publishSettled);
+
+        publishInventoryIncreased(
+                baseEvent(view.id(), view.sku(), view.status(), stockBuckets.total(view.id())),
+                quantity,
+                false
+        );
+
+        log.info("Inventory increased. productId={}, buckets={}", view.id(), view.buckets());
+    }
+
+    // A bucketed product changed status once its buckets emptied or refilled
+    private void publishSettled(StockBuckets.Settled settled) {
+        Map<String, Object> event = baseEvent(
+                settled.productId(),
+                settled.sku(),
+                settled.status(),
+                settled.availableQuantity()
+        );
+
+        // 📊 Analytics: the INVENTORY_* events went out with the status before the flip
+        Map<String, Object> statusEvent = new HashMap<>(event);
+        statusEvent.put("eventType", "STOCK_STATUS_CHANGED");
+        rabbitMQSender.sendEventToAnalytics(statusEvent);
+
+        if (settled.status() == ProductEntity.ProductStatus.OUT_OF_STOCK) {
+            publishOutOfStock(event);
+        } else {
+            publishBackInStock(event);
+        }
+    }
+
+    private void requireBucketsSupported() {
+        if (inventoryLedger.enabled()) {
+            throw new IllegalStateException("Stock buckets require product.inventory.engine=DATABASE");
+        }
+    }
+
+    /* =========================
+       INVENTORY EVENTS
+       ========================= */
+
+    private void publishInventoryReduced(
+            Map<String, Object> event,
+            int quantity,
+            boolean outOfStock
+    ) {
+        event.put("eventType", "INVENTORY_REDUCED");
+        event.put("quantityReduced", quantity);
+
+        // 📊 Analytics
+        rabbitMQSender.sendEventToAnalytics(event);
+
+        if (outOfStock) {
+            publishOutOfStock(event);
+        }
+    }
+
+    // 🏭 Warehouse must know if product is OUT_OF_STOCK
+    private void publishOutOfStock(Map<String, Object> event) {
+        Map<String, Object> warehouseEvent = new HashMap<>(event);
+        warehouseEvent.put("eventType", "OUT_OF_STOCK");
+
+        rabbitMQSender.sendInventoryUpdateToWarehouse(
+                DEFAULT_WAREHOUSE_ID,
+                warehouseEvent
         );
     }
 
+    private void publishInventoryIncreased(
+            Map<String, Object> event,
+            int quantity,
+            boolean backInStock
+    ) {
+        event.put("eventType", "INVENTORY_INCREASED");
+        event.put("quantityAdded", quantity);
+
+        // 📊 Analytics
+        rabbitMQSender.sendEventToAnalytics(event);
+
+        if (backInStock) {
+            publishBackInStock(event);
+        }
+    }
+
+    // ⏳ Delayed user notification (TTL)
+    private void publishBackInStock(Map<String, Object> event) {
+        Map<String, Object> backInStockEvent = new HashMap<>(event);
+        backInStockEvent.put("eventType", "PRODUCT_BACK_IN_STOCK");
+
+        rabbitMQSender.sendDelayedUserNotification(backInStockEvent);
+    }
+
     /* =========================
        PRODUCT STATE OPERATIONS
        ========================= */
@@ -278,6 +612,7 @@ public class ProductService {
         product.setStatus(ProductEntity.ProductStatus.INACTIVE);
 
         ProductEntity saved = productRepository.save(product);
+        inventoryLedger.statusChanged(productId, saved.getStatus());
 
         Map<String, Object> event = baseEvent(saved);
         event.put("eventType", "PRODUCT_DEACTIVATED");
@@ -294,6 +629,7 @@ public class ProductService {
         product.setStatus(ProductEntity.ProductStatus.ACTIVE);
 
         ProductEntity saved = productRepository.save(product);
+        inventoryLedger.statusChanged(productId, saved.getStatus());
 
         Map<String, Object> event = baseEvent(saved);
         event.put("eventType", "PRODUCT_ACTIVATED");
@@ -333,11 +669,34 @@ public class ProductService {
        ========================= */
 
     private Map<String, Object> baseEvent(ProductEntity product) {
+        InventoryLedger.StockLevel level = inventoryLedger.stockLevel(product.getId());
+        if (level != null) {
+            return baseEvent(level);
+        }
+
+        return baseEvent(
+                product.getId(),
+                product.getSku(),
+                product.getStatus(),
+                availableQuantity(product)
+        );
+    }
+
+    private Map<String, Object> baseEvent(InventoryLedger.StockLevel level) {
+        return baseEvent(level.productId(), level.sku(), level.status(), level.availableQuantity());
+    }
+
+    private Map<String, Object> baseEvent(
+            UUID productId,
+            String sku,
+            ProductEntity.ProductStatus status,
+            int availableQuantity
+    ) {
         Map<String, Object> event = new HashMap<>();
-        event.put("productId", product.getId());
-        event.put("sku", product.getSku());
-        event.put("status", product.getStatus().name());
-        event.put("availableQuantity", product.getAvailableQuantity());
+        event.put("productId", productId);
+        event.put("sku", sku);
+        event.put("status", status.name());
+        event.put("availableQuantity", availableQuantity);
         event.put("timestamp", System.currentTimeMillis());
         return event;
     }
@@ -352,16 +711,41 @@ public class ProductService {
                         new EntityNotFoundException("Product not found: " + productId));
     }
 
-    private ProductEntity getActiveProduct(UUID productId) {
-        ProductEntity product = getProductEntity(productId);
+    private int availableQuantity(ProductEntity product) {
+        return product.getStockBuckets() > 0
+                ? stockBuckets.total(product.getId())
+                : product.getAvailableQuantity();
+    }
+
+    private static List<UUID> productIds(List<BulkInventoryReductionRequest.Item> items) {
+        return items.stream()
+                .map(BulkInventoryReductionRequest.Item::getProductId)
+                .toList();
+    }
+
+    private static BulkInventoryReductionRequest.Item item(UUID productId, int quantity) {
+        return BulkInventoryReductionRequest.Item.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private ProductEntity lockProduct(UUID productId) {
+        return inventoryLocks.lockProduct(productId)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Product not found: " + productId));
+    }
+
+    private ProductEntity lockActiveProduct(UUID productId) {
+        ProductEntity product = lockProduct(productId);
         if (product.getStatus() != ProductEntity.ProductStatus.ACTIVE) {
             throw new IllegalStateException("Product is not active: " + productId);
         }
         return product;
     }
 
-    private ProductEntity getActiveOrOutOfStockProduct(UUID productId) {
-        ProductEntity product = getProductEntity(productId);
+    private ProductEntity lockActiveOrOutOfStockProduct(UUID productId) {
+        ProductEntity product = lockProduct(productId);
         if (product.getStatus() == ProductEntity.ProductStatus.DISCONTINUED) {
             throw new IllegalStateException("Product is discontinued: " + productId);
         }
@@ -373,16 +757,21 @@ public class ProductService {
        ========================= */
 
     private ProductResponseModel mapToResponse(ProductEntity product) {
+        // With the ledger engine the table lags behind by up to one flush interval
+        InventoryLedger.StockLevel level = inventoryLedger.stockLevel(product.getId());
+
         return ProductResponseModel.builder()
                 .id(product.getId())
                 .title(product.getTitle())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .availableQuantity(product.getAvailableQuantity())
+                .availableQuantity(level != null ? level.availableQuantity() : availableQuantity(product))
+                .reservedQuantity(product.getReservedQuantity())
+                .stockBuckets(product.getStockBuckets())
                 .sku(product.getSku())
                 .category(product.getCategory())
                 .brand(product.getBrand())
-                .status(product.getStatus())
+                .status(level != null ? level.status() : product.getStatus())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
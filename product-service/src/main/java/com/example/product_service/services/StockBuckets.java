@@ -0,0 +1,292 @@
+package com.example.product_service.services;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.entity.ProductStockBucketEntity;
+import com.example.product_service.models.StockBucketsView;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.repository.ProductStockBucketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Split stock for extreme-contention products (opt-in per product via
+ * {@code ProductEntity.stockBuckets}).
+ * <p>
+ * A bucketed product keeps its stock in N {@code product_stock_buckets} rows
+ * and never touches its {@code products} row on the hot path:
+ * - take: one unlocked read of the buckets, then a conditional decrement of
+ *   the thread's bucket or, if that one is short, of the next neighbour that
+ *   can cover the quantity; if none can (or the decrement loses a race) the
+ *   buckets are locked together in bucket order, pooled and, if enough is
+ *   left, rebalanced evenly
+ * - put: increment of the thread's bucket
+ * <p>
+ * Status follows the sum of the buckets. Whoever empties a bucket or adds to
+ * one settles the status after commit ({@link #settle}): it locks the product
+ * row, reads the committed sum and flips ACTIVE ⇄ OUT_OF_STOCK. Every change
+ * that can make the sum 0 empties some bucket, so the last unit taken always
+ * ends in a settle that sees the final sum.
+ * <p>
+ * Lock order (no deadlocks with the row-lock paths): product rows first, then
+ * buckets in product id order, then bucket order; the settle runs in its own
+ * transaction holding nothing else. The single decrement runs in a savepoint
+ * (see {@code ProductStockBucketJdbcRepository}), so a miss leaves no lock
+ * behind before the buckets are locked in order.
+ * <p>
+ * Metrics:
+ * - {@code product.inventory.buckets.fallbacks}: tag {@code kind} (neighbour, rebalance)
+ */
+@Component
+@Slf4j
+public class StockBuckets {
+
+    private final ProductStockBucketRepository bucketRepository;
+    private final ProductRepository productRepository;
+    private final InventoryLocks inventoryLocks;
+    private final TransactionTemplate settleTransaction;
+
+    private final Counter neighbourFallbacks;
+    private final Counter rebalances;
+
+    public StockBuckets(
+            ProductStockBucketRepository bucketRepository,
+            ProductRepository productRepository,
+            InventoryLocks inventoryLocks,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.bucketRepository = bucketRepository;
+        this.productRepository = productRepository;
+        this.inventoryLocks = inventoryLocks;
+
+        // Runs from afterCommit, where the finished transaction is still bound
+        this.settleTransaction = new TransactionTemplate(transactionManager);
+        this.settleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.neighbourFallbacks = meterRegistry.counter("product.inventory.buckets.fallbacks", "kind", "neighbour");
+        this.rebalances = meterRegistry.counter("product.inventory.buckets.fallbacks", "kind", "rebalance");
+    }
+
+    /* =========================
+       LOOKUP
+       ========================= */
+
+    /**
+     * The bucketed products among {@code productIds}; the rest use the product row.
+     */
+    public Map<UUID, StockBucketsView> bucketed(Collection<UUID> productIds) {
+        return productRepository.findBucketedByIdIn(productIds)
+                .stream()
+                .collect(Collectors.toMap(StockBucketsView::id, Function.identity()));
+    }
+
+    /**
+     * Sum of the buckets, including this transaction's own changes.
+     */
+    public int total(UUID productId) {
+        return bucketRepository.totalQuantity(productId);
+    }
+
+    /* =========================
+       TAKE / PUT (inside the caller's transaction)
+       ========================= */
+
+    /**
+     * Takes {@code quantity} from the product's buckets.
+     *
+     * @return whether a bucket was emptied, i.e. the status must be settled after commit
+     * @throws IllegalStateException if all buckets together hold less
+     */
+    public boolean take(StockBucketsView product, int quantity) {
+        List<Integer> quantities = bucketRepository.quantities(product.id());
+        int preferred = preferredBucket(quantities.size());
+
+        for (int i = 0; i < quantities.size(); i++) {
+            int bucket = (preferred + i) % quantities.size();
+
+            if (quantities.get(bucket) >= quantity) {
+                if (bucketRepository.takeInSavepoint(product.id(), bucket, quantity)) {
+                    if (i > 0) {
+                        neighbourFallbacks.increment();
+                    }
+                    return bucketRepository.quantityOf(product.id(), bucket) == 0;
+                }
+                break;
+            }
+        }
+
+        return takeRebalancing(product.id(), quantity);
+    }
+
+    /**
+     * No single bucket holds {@code quantity}: lock them all, pool what is left
+     * and spread the remainder evenly again.
+     */
+    private boolean takeRebalancing(UUID productId, int quantity) {
+        List<ProductStockBucketEntity> locked = bucketRepository.findAllByProductIdForUpdate(productId);
+
+        int total = locked.stream().mapToInt(ProductStockBucketEntity::getQuantity).sum();
+        if (total < quantity) {
+            throw new IllegalStateException("Insufficient stock for product: " + productId);
+        }
+
+        spread(locked, total - quantity);
+        rebalances.increment();
+
+        return total == quantity;
+    }
+
+    /**
+     * Adds {@code quantity} to the thread's bucket; the status must be settled after commit.
+     */
+    public void put(StockBucketsView product, int quantity) {
+        bucketRepository.add(product.id(), preferredBucket(product.buckets()), quantity);
+    }
+
+    /* =========================
+       CONFIGURATION
+       ========================= */
+
+    /**
+     * Locks a locked product's buckets (in bucket order) and returns its stock:
+     * the bucket sum, or {@code available_quantity} for a plain product. Once
+     * this returns, no take or reserve on the buckets is in flight.
+     */
+    public int lockTotal(ProductEntity product) {
+        if (product.getStockBuckets() == 0) {
+            return product.getAvailableQuantity();
+        }
+
+        return bucketRepository.findAllByProductIdForUpdate(product.getId())
+                .stream()
+                .mapToInt(ProductStockBucketEntity::getQuantity)
+                .sum();
+    }
+
+    /**
+     * Splits {@code total}, as returned by {@link #lockTotal}, over
+     * {@code buckets} rows, evenly; with the same count this rebalances, with 0
+     * the stock goes back to the product row.
+     */
+    public void redistribute(ProductEntity product, int total, int buckets) {
+        if (buckets < 0) {
+            throw new IllegalArgumentException("Bucket count must not be negative");
+        }
+
+        bucketRepository.deleteByProductId(product.getId());
+
+        if (buckets == 0) {
+            product.setAvailableQuantity(total);
+        } else {
+            List<ProductStockBucketEntity> rows = new ArrayList<>();
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                rows.add(ProductStockBucketEntity.builder()
+                        .productId(product.getId())
+                        .bucket(bucket)
+                        .build());
+            }
+            spread(rows, total);
+            bucketRepository.saveAll(rows);
+            product.setAvailableQuantity(0);
+        }
+
+        product.setStockBuckets(buckets);
+
+        log.info("Stock buckets configured. productId={}, buckets={}, total={}", product.getId(), buckets, total);
+    }
+
+    /* =========================
+       STATUS SETTLE
+       ========================= */
+
+    /**
+     * Runs {@link #settle} once the current transaction has committed, so it
+     * sees that transaction's bucket changes.
+     */
+    public void settleAfterCommit(UUID productId, Consumer<Settled> onChange) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settle(productId).ifPresent(onChange);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                settle(productId).ifPresent(onChange);
+            }
+        });
+    }
+
+    /**
+     * Aligns ACTIVE / OUT_OF_STOCK with the committed bucket sum, under the
+     * product row lock so concurrent settles apply one after the other.
+     *
+     * @return the new state if the status flipped
+     */
+    public Optional<Settled> settle(UUID productId) {
+        return settleTransaction.execute(status -> {
+            ProductEntity product = inventoryLocks.lockProduct(productId).orElse(null);
+            if (product == null || product.getStockBuckets() == 0) {
+                return Optional.empty();
+            }
+
+            int total = bucketRepository.totalQuantity(productId);
+
+            if (total == 0 && product.getStatus() == ProductEntity.ProductStatus.ACTIVE) {
+                product.setStatus(ProductEntity.ProductStatus.OUT_OF_STOCK);
+            } else if (total > 0 && product.getStatus() == ProductEntity.ProductStatus.OUT_OF_STOCK) {
+                product.setStatus(ProductEntity.ProductStatus.ACTIVE);
+            } else {
+                return Optional.empty();
+            }
+
+            log.info("Bucketed product status settled. productId={}, status={}, available={}",
+                    productId, product.getStatus(), total);
+
+            return Optional.of(new Settled(productId, product.getSku(), product.getStatus(), total));
+        });
+    }
+
+    public record Settled(
+            UUID productId,
+            String sku,
+            ProductEntity.ProductStatus status,
+            int availableQuantity
+    ) {
+    }
+
+    /* =========================
+       INTERNAL
+       ========================= */
+
+    // Threads stick to a bucket, so concurrent requests mostly hit different rows
+    private static int preferredBucket(int buckets) {
+        return Math.floorMod(Long.hashCode(Thread.currentThread().threadId()), buckets);
+    }
+
+    private static void spread(List<ProductStockBucketEntity> buckets, int total) {
+        int share = total / buckets.size();
+        int remainder = total % buckets.size();
+
+        for (int i = 0; i < buckets.size(); i++) {
+            buckets.get(i).setQuantity(share + (i < remainder ? 1 : 0));
+        }
+    }
+}
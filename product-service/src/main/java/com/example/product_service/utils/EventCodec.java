@@ -0,0 +1,57 @@
+package com.example.product_service.utils;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Encodes outgoing product events as JSON or CBOR ({@code product.events.encoding}).
+ * <p>
+ * The format is carried in the AMQP {@code content-type} header, which is what
+ * consumers use to decode, so switching encodings needs no consumer change.
+ * Incoming messages (order-service inventory commands) are decoded the same
+ * way: CBOR if the header says so, JSON otherwise.
+ */
+@Component
+public class EventCodec {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    public enum Encoding {
+        JSON(MessageProperties.CONTENT_TYPE_JSON),
+        CBOR(CONTENT_TYPE_CBOR);
+
+        private final String contentType;
+
+        Encoding(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    private final Encoding encoding;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public EventCodec(@Value("${product.events.encoding:JSON}") Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public Message toMessage(Object payload) {
+        ObjectMapper mapper = encoding == Encoding.CBOR ? cborMapper : jsonMapper;
+
+        return MessageBuilder.withBody(mapper.writeValueAsBytes(payload))
+                .setContentType(encoding.contentType)
+                .build();
+    }
+
+    public <T> T decode(Message message, Class<T> type) {
+        String contentType = message.getMessageProperties().getContentType();
+        ObjectMapper mapper = CONTENT_TYPE_CBOR.equals(contentType) ? cborMapper : jsonMapper;
+
+        return mapper.readValue(message.getBody(), type);
+    }
+}
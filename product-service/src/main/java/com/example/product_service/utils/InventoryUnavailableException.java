@@ -0,0 +1,17 @@
+package com.example.product_service.utils;
+
+/**
+ * The inventory could not take the change right now (journal saturated, slow
+ * or failing, or shutting down); nothing was applied and the request may be
+ * retried. Answered as 503 over REST and {@code ERROR} over AMQP.
+ */
+public class InventoryUnavailableException extends RuntimeException {
+
+    public InventoryUnavailableException(String message) {
+        super(message);
+    }
+
+    public InventoryUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.product_service.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.product_service.configuration.RabbitMQConfig.PRODUCTS_PUBLISH_PARKING_LOT_QUEUE;
+
+/**
+ * Publishes with {@link CorrelationData} and follows every publish until the
+ * broker confirms it, without blocking the caller.
+ * <p>
+ * Outstanding publishes live in a map keyed by correlation id. A nack, a
+ * mandatory return (unroutable) or no confirm within {@code confirm-timeout}
+ * counts as a failure. Failed publishes are retried up to {@code max-attempts}
+ * and then parked on {@code products.publish.parking-lot.queue} with the
+ * original exchange / routing key in headers.
+ * <p>
+ * Retries and parking run on the sweep thread, never on the confirm callback
+ * (publishing from the callback can deadlock the channel).
+ * <p>
+ * Metrics:
+ * - {@code product.publisher.publish.latency}: time spent handing a message to the channel
+ * - {@code product.publisher.confirm.latency}: publish → confirm, tag {@code outcome}
+ * - {@code product.publisher.in_flight}: publishes waiting for a confirm
+ * - {@code product.publisher.failures}: tag {@code outcome} (nack, returned, timeout)
+ * - {@code product.publisher.retries} / {@code product.publisher.parked} / {@code product.publisher.lost}
+ */
+@Component
+@Slf4j
+public class PublisherConfirmTracker {
+
+    public static final String ORIGINAL_EXCHANGE_HEADER = "x-original-exchange";
+    public static final String ORIGINAL_ROUTING_KEY_HEADER = "x-original-routing-key";
+    public static final String PARK_REASON_HEADER = "x-park-reason";
+
+    private static final String OUTCOME_ACK = "ack";
+    private static final String OUTCOME_NACK = "nack";
+    private static final String OUTCOME_RETURNED = "returned";
+    private static final String OUTCOME_TIMEOUT = "timeout";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long confirmTimeoutNanos;
+    private final int maxAttempts;
+
+    private final Map<String, Pending> outstanding = new ConcurrentHashMap<>();
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+
+    private final Timer publishLatency;
+    private final Counter retries;
+    private final Counter parked;
+    private final Counter lost;
+
+    public PublisherConfirmTracker(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${product.publisher.confirm-timeout:PT5S}") Duration confirmTimeout,
+            @Value("${product.publisher.max-attempts:3}") int maxAttempts
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.confirmTimeoutNanos = confirmTimeout.toNanos();
+        this.maxAttempts = maxAttempts;
+
+        this.publishLatency = Timer.builder("product.publisher.publish.latency")
+                .register(meterRegistry);
+        this.retries = meterRegistry.counter("product.publisher.retries");
+        this.parked = meterRegistry.counter("product.publisher.parked");
+        this.lost = meterRegistry.counter("product.publisher.lost");
+
+        Gauge.builder("product.publisher.in_flight", outstanding, Map::size)
+                .register(meterRegistry);
+    }
+
+    /* =========================
+       PUBLISH
+       ========================= */
+
+    /**
+     * Publishes and returns immediately; the correlation's future completes on confirm.
+     */
+    public CorrelationData publish(
+            String exchange,
+            String routingKey,
+            Message message
+    ) {
+        return send(new Pending(exchange, routingKey, message, 1, 0));
+    }
+
+    private CorrelationData send(Pending pending) {
+        CorrelationData correlation = new CorrelationData();
+        long start = System.nanoTime();
+        outstanding.put(correlation.getId(), pending.sentAt(start));
+
+        try {
+            rabbitTemplate.send(pending.exchange(), pending.routingKey(), pending.message(), correlation);
+        } catch (RuntimeException ex) {
+            outstanding.remove(correlation.getId());
+            throw ex;
+        } finally {
+            publishLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        correlation.getFuture().whenComplete((confirm, ex) -> onConfirm(correlation, confirm));
+        return correlation;
+    }
+
+    /* =========================
+       CONFIRM HANDLING
+       ========================= */
+
+    private void onConfirm(CorrelationData correlation, CorrelationData.Confirm confirm) {
+        Pending pending = outstanding.remove(correlation.getId());
+        if (pending == null) {
+            return; // already given up on by the sweep
+        }
+
+        boolean ack = confirm != null && confirm.ack();
+        String reason = confirm == null ? "confirm failed" : confirm.reason();
+
+        ReturnedMessage returned = correlation.getReturned();
+        String outcome = returned != null ? OUTCOME_RETURNED : ack ? OUTCOME_ACK : OUTCOME_NACK;
+
+        Timer.builder("product.publisher.confirm.latency")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - pending.sentAtNanos(), TimeUnit.NANOSECONDS);
+
+        if (returned != null) {
+            failed(pending, OUTCOME_RETURNED, returned.getReplyText());
+        } else if (!ack) {
+            failed(pending, OUTCOME_NACK, reason);
+        }
+    }
+
+    private void failed(Pending pending, String outcome, String reason) {
+        meterRegistry.counter("product.publisher.failures", "outcome", outcome).increment();
+        log.warn(
+                "Publish not confirmed. exchange={}, routingKey={}, attempt={}, outcome={}, reason={}",
+                pending.exchange(), pending.routingKey(), pending.attempt(), outcome, reason
+        );
+
+        failures.add(new Failure(pending, outcome + ": " + reason));
+    }
+
+    /* =========================
+       SWEEP (TIMEOUTS, RETRIES, PARKING)
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${product.publisher.sweep-interval-ms:500}")
+    public void sweep() {
+        long now = System.nanoTime();
+        outstanding.forEach((id, pending) -> {
+            if (now - pending.sentAtNanos() > confirmTimeoutNanos && outstanding.remove(id, pending)) {
+                failed(pending, OUTCOME_TIMEOUT, "no confirm within timeout");
+            }
+        });
+
+        // Only what is queued now; failures of these retries wait for the next sweep
+        for (int i = failures.size(); i > 0; i--) {
+            Failure failure = failures.poll();
+            if (failure == null) {
+                break;
+            }
+            redeliver(failure);
+        }
+    }
+
+    private void redeliver(Failure failure) {
+        Pending pending = failure.pending();
+
+        if (pending.attempt() >= maxAttempts) {
+            park(pending, failure.reason());
+            return;
+        }
+
+        Pending next = pending.nextAttempt();
+        try {
+            retries.increment();
+            send(next);
+        } catch (AmqpException ex) {
+            failed(next, "send_failed", ex.getMessage());
+        }
+    }
+
+    private void park(Pending pending, String reason) {
+        Message message = MessageBuilder.fromClonedMessage(pending.message())
+                .setHeader(ORIGINAL_EXCHANGE_HEADER, pending.exchange())
+                .setHeader(ORIGINAL_ROUTING_KEY_HEADER, pending.routingKey())
+                .setHeader(PARK_REASON_HEADER, reason)
+                .build();
+
+        try {
+            rabbitTemplate.send("", PRODUCTS_PUBLISH_PARKING_LOT_QUEUE, message);
+            parked.increment();
+            log.error(
+                    "Publish parked after {} attempts. exchange={}, routingKey={}, reason={}",
+                    pending.attempt(), pending.exchange(), pending.routingKey(), reason
+            );
+        } catch (AmqpException ex) {
+            lost.increment();
+            log.error(
+                    "Publish lost, parking failed. exchange={}, routingKey={}, reason={}",
+                    pending.exchange(), pending.routingKey(), reason, ex
+            );
+        }
+    }
+
+    /* =========================
+       INTERNAL STATE
+       ========================= */
+
+    private record Pending(
+            String exchange,
+            String routingKey,
+            Message message,
+            int attempt,
+            long sentAtNanos
+    ) {
+        Pending sentAt(long nanos) {
+            return new Pending(exchange, routingKey, message, attempt, nanos);
+        }
+
+        Pending nextAttempt() {
+            return new Pending(exchange, routingKey, message, attempt + 1, 0);
+        }
+    }
+
+    private record Failure(Pending pending, String reason) {
+    }
+}
@@ -2,9 +2,7 @@ package com.example.product_service.utils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
-import tools.jackson.databind.ObjectMapper;
 
 import static com.example.product_service.configuration.RabbitMQConfig.*;
 
@@ -13,8 +11,8 @@ import static com.example.product_service.configuration.RabbitMQConfig.*;
 @Slf4j
 public class RabbitMQSender {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventCodec eventCodec;
+    private final PublisherConfirmTracker confirmTracker;
 
     /* =========================================================
        1. INVENTORY → WAREHOUSE (Topic Exchange)
@@ -26,7 +24,7 @@ public class RabbitMQSender {
     ) {
         String routingKey = "products.warehouse." + warehouseId + ".queue";
         log.info(routingKey);
-        sendAsJson(PRODUCTS_WAREHOUSE_TOPIC_EXCHANGE, routingKey, payload);
+        sendEncoded(PRODUCTS_WAREHOUSE_TOPIC_EXCHANGE, routingKey, payload);
     }
 
     /* =========================================================
@@ -34,7 +32,7 @@ public class RabbitMQSender {
        ========================================================= */
 
     public void sendEventToAnalytics(Object payload) {
-        sendAsJson(PRODUCTS_ANALYTICS_FANOUT_EXCHANGE, "", payload);
+        sendEncoded(PRODUCTS_ANALYTICS_FANOUT_EXCHANGE, "", payload);
     }
 
     /* =========================================================
@@ -42,25 +40,33 @@ public class RabbitMQSender {
        ========================================================= */
 
     public void sendDelayedUserNotification(Object payload) {
-        sendAsJson(PRODUCTS_NOTIFICATION_TTL_EXCHANGE, "notify.delay", payload);
+        sendEncoded(PRODUCTS_NOTIFICATION_TTL_EXCHANGE, "notify.delay", payload);
     }
 
     /* =========================================================
-       INTERNAL JSON SENDER
+       4. RESERVATION COMMIT FAILED → ORDER SERVICE (Direct Exchange)
        ========================================================= */
 
-    private void sendAsJson(String exchange, String routingKey, Object payload) {
-        try {
-            String json = objectMapper.writeValueAsString(payload);
+    public void sendInventoryCommitFailed(Object payload) {
+        sendEncoded(PRODUCTS_INVENTORY_DIRECT_EXCHANGE, PRODUCTS_INVENTORY_COMMIT_FAILED_ROUTING_KEY, payload);
+    }
 
-            rabbitTemplate.convertAndSend(exchange, routingKey, json);
+    /* =========================================================
+       INTERNAL ENCODED SENDER
+       ========================================================= */
+
+    // Confirmed asynchronously; nacked / returned events are retried, then parked
+
+    private void sendEncoded(String exchange, String routingKey, Object payload) {
+        try {
+            confirmTracker.publish(exchange, routingKey, eventCodec.toMessage(payload));
 
             log.info(
-                    "Message sent as JSON → exchange={}, routingKey={}",
+                    "Message sent → exchange={}, routingKey={}",
                     exchange, routingKey
             );
         } catch (Exception ex) {
-            log.error("Failed to serialize payload to JSON", ex);
+            log.error("Failed to encode payload", ex);
             throw new IllegalStateException("Message serialization failed", ex);
         }
     }
@@ -0,0 +1,197 @@
+package com.example.product_service.services;
+
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.CreateProductRequestModel;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.utils.RabbitMQSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads reducing overlapping product sets, each listing the products
+ * in a different order, must neither deadlock nor hit the lock timeout, and
+ * every unit taken must show up in the final stock. A blocked request, single
+ * or bulk, must give up within the lock timeout.
+ */
+@SpringBootTest(properties = "product.inventory.lock-timeout=PT1S")
+class InventoryLockingConcurrencyTest {
+
+    private static final int PRODUCTS = 6;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 40;
+    private static final int INITIAL_STOCK = 100_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryLocks inventoryLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private RabbitMQSender rabbitMQSender;
+
+    @Test
+    void overlappingBulkReductionsInRandomOrderNeverDeadlock() throws Exception {
+        List<UUID> productIds = createProducts(INITIAL_STOCK);
+
+        Map<UUID, AtomicInteger> taken = new ConcurrentHashMap<>();
+        productIds.forEach(id -> taken.put(id, new AtomicInteger()));
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        long acquiredBefore = lockWaits("acquired");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        List<BulkInventoryReductionRequest.Item> items = randomOrder(productIds);
+                        try {
+                            productService.reduceQuantitiesBulk(
+                                    BulkInventoryReductionRequest.builder().items(items).build()
+                            );
+                            items.forEach(item ->
+                                    taken.get(item.getProductId()).addAndGet(item.getQuantity()));
+                        } catch (RuntimeException ex) {
+                            failures.add(ex);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "reductions did not finish");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " reductions failed, first: " + failures.peek());
+
+        for (UUID id : productIds) {
+            assertEquals(
+                    INITIAL_STOCK - taken.get(id).get(),
+                    productRepository.findById(id).orElseThrow().getAvailableQuantity()
+            );
+        }
+
+        assertEquals(THREADS * ORDERS_PER_THREAD, lockWaits("acquired") - acquiredBefore);
+    }
+
+    @Test
+    void lockWaitIsBoundedByTimeout() throws Exception {
+        UUID productId = createProducts(10).getFirst();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            inventoryLocks.lockStock(List.of(productId));
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            long timedOutBefore = lockWaits("timeout");
+
+            assertThrows(PessimisticLockingFailureException.class, () ->
+                    productService.reduceQuantity(productId, 1));
+
+            assertEquals(timedOutBefore + 1, lockWaits("timeout"));
+
+            // The bulk path has no locking read: its UPDATEs wait, under the same budget
+            assertThrows(PessimisticLockingFailureException.class, () ->
+                    productService.reduceQuantitiesBulk(BulkInventoryReductionRequest.builder()
+                            .items(List.of(BulkInventoryReductionRequest.Item.builder()
+                                    .productId(productId)
+                                    .quantity(1)
+                                    .build()))
+                            .build()));
+
+            assertEquals(timedOutBefore + 2, lockWaits("timeout"));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        assertEquals(10, productRepository.findById(productId).orElseThrow().getAvailableQuantity());
+    }
+
+    private List<UUID> createProducts(int stock) {
+        return IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> productService.createProduct(
+                        CreateProductRequestModel.builder()
+                                .title("Lock test " + i)
+                                .price(BigDecimal.TEN)
+                                .availableQuantity(stock)
+                                .sku("LOCK-" + UUID.randomUUID())
+                                .category("test")
+                                .build()
+                ).getId())
+                .toList();
+    }
+
+    private long lockWaits(String outcome) {
+        return meterRegistry.get("product.inventory.lock.wait").tag("outcome", outcome).timer().count();
+    }
+
+    // Overlapping subset of 2..PRODUCTS products, shuffled so lock order differs per request
+    private static List<BulkInventoryReductionRequest.Item> randomOrder(List<UUID> productIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        List<UUID> shuffled = new ArrayList<>(productIds);
+        Collections.shuffle(shuffled, random);
+
+        return shuffled.subList(0, random.nextInt(2, productIds.size() + 1))
+                .stream()
+                .map(id -> BulkInventoryReductionRequest.Item.builder()
+                        .productId(id)
+                        .quantity(random.nextInt(1, 4))
+                        .build())
+                .toList();
+    }
+}
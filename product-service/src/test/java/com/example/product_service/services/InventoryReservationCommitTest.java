@@ -0,0 +1,114 @@
+package com.example.product_service.services;
+
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.CreateProductRequestModel;
+import com.example.product_service.models.InventoryReservationRequest;
+import com.example.product_service.utils.RabbitMQSender;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A commit whose hold already expired is covered from available stock once,
+ * however often it is delivered; one that can't be covered is reported back
+ * to order-service.
+ */
+@SpringBootTest(properties = {
+        "product.inventory.reservations.ttl=PT0S",
+        "product.inventory.reservations.sweep-interval-ms=3600000"
+})
+class InventoryReservationCommitTest {
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockitoBean
+    private RabbitMQSender rabbitMQSender;
+
+    @Test
+    void expiredHoldIsCommittedFromAvailableStockOnce() {
+        UUID productId = createProduct(10);
+        UUID orderId = UUID.randomUUID();
+
+        reserveAndExpire(orderId, productId, 3);
+        assertEquals(10, available(productId));
+
+        inventoryReservationService.commit(orderId, List.of(item(productId, 3)));
+        assertEquals(7, available(productId));
+
+        // Redelivery
+        inventoryReservationService.commit(orderId, List.of(item(productId, 3)));
+        assertEquals(7, available(productId));
+
+        verify(rabbitMQSender, never()).sendInventoryCommitFailed(any());
+    }
+
+    @Test
+    void uncoverableCommitIsReportedToOrderService() {
+        UUID productId = createProduct(4);
+        UUID orderId = UUID.randomUUID();
+
+        reserveAndExpire(orderId, productId, 3);
+        productService.reduceQuantity(productId, 2);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> inventoryReservationService.commit(orderId, List.of(item(productId, 3)))
+        );
+        assertEquals(2, available(productId));
+
+        verify(rabbitMQSender).sendInventoryCommitFailed(
+                argThat(payload -> payload instanceof Map<?, ?> event && orderId.equals(event.get("orderId")))
+        );
+    }
+
+    private void reserveAndExpire(UUID orderId, UUID productId, int quantity) {
+        inventoryReservationService.reserve(InventoryReservationRequest.builder()
+                .reservations(List.of(InventoryReservationRequest.Reservation.builder()
+                        .orderId(orderId)
+                        .items(List.of(item(productId, quantity)))
+                        .build()))
+                .build());
+
+        inventoryReservationService.releaseExpired(100);
+    }
+
+    private UUID createProduct(int stock) {
+        return productService.createProduct(
+                CreateProductRequestModel.builder()
+                        .title("Reserved")
+                        .price(BigDecimal.TEN)
+                        .availableQuantity(stock)
+                        .sku("RESERVE-" + UUID.randomUUID())
+                        .category("test")
+                        .build()
+        ).getId();
+    }
+
+    private int available(UUID productId) {
+        return productService.getProductById(productId).getAvailableQuantity();
+    }
+
+    private static BulkInventoryReductionRequest.Item item(UUID productId, int quantity) {
+        return BulkInventoryReductionRequest.Item.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.product_service.services;
+
+import com.example.product_service.entity.ProductEntity;
+import com.example.product_service.models.BulkInventoryReductionRequest;
+import com.example.product_service.models.CreateProductRequestModel;
+import com.example.product_service.models.ProductResponseModel;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.utils.RabbitMQSender;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Concurrent reductions of a bucketed product must sell exactly its stock,
+ * however unevenly the buckets drain, and the last unit taken must leave it
+ * OUT_OF_STOCK.
+ */
+@SpringBootTest(properties = "product.inventory.lock-timeout=PT1S")
+class StockBucketsConcurrencyTest {
+
+    private static final int BUCKETS = 8;
+    private static final int THREADS = 16;
+    private static final int INITIAL_STOCK = 301;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private RabbitMQSender rabbitMQSender;
+
+    @Test
+    void drainingAllBucketsSellsExactlyTheStockAndFlipsToOutOfStock() throws Exception {
+        UUID productId = createBucketedProduct(INITIAL_STOCK);
+
+        AtomicInteger sold = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int quantity = t % 3 + 1;
+                executor.submit(() -> {
+                    start.await();
+                    // Until this thread's quantity can't be covered any more
+                    while (true) {
+                        try {
+                            productService.reduceQuantitiesBulk(reduce(productId, quantity));
+                            sold.addAndGet(quantity);
+                        } catch (IllegalStateException ex) {
+                            return null;
+                        } catch (RuntimeException ex) {
+                            failures.add(ex);
+                            return null;
+                        }
+                    }
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "reductions did not finish");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " reductions failed, first: " + failures.peek());
+
+        // Threads taking 1 unit only stop once nothing is left
+        assertEquals(INITIAL_STOCK, sold.get());
+
+        ProductResponseModel product = productService.getProductById(productId);
+        assertEquals(0, product.getAvailableQuantity());
+        assertEquals(ProductEntity.ProductStatus.OUT_OF_STOCK, product.getStatus());
+
+        verify(rabbitMQSender, times(1)).sendInventoryUpdateToWarehouse(
+                any(),
+                argThat(payload -> isEvent(payload, productId, "OUT_OF_STOCK"))
+        );
+    }
+
+    @Test
+    void restockingAnEmptyBucketedProductBringsItBack() {
+        UUID productId = createBucketedProduct(2);
+
+        productService.reduceQuantity(productId, 2);
+        assertEquals(ProductEntity.ProductStatus.OUT_OF_STOCK, productService.getProductById(productId).getStatus());
+
+        productService.increaseQuantity(productId, 5);
+
+        ProductResponseModel product = productService.getProductById(productId);
+        assertEquals(5, product.getAvailableQuantity());
+        assertEquals(ProductEntity.ProductStatus.ACTIVE, product.getStatus());
+
+        // Back to a single row keeps the stock
+        ProductResponseModel merged = productService.configureStockBuckets(productId, 0);
+        assertEquals(5, merged.getAvailableQuantity());
+        assertEquals(5, productRepository.findById(productId).orElseThrow().getAvailableQuantity());
+
+        verify(rabbitMQSender).sendDelayedUserNotification(
+                argThat(payload -> isEvent(payload, productId, "PRODUCT_BACK_IN_STOCK"))
+        );
+
+        // Order-side snapshot caches learn about the flip from the analytics fanout
+        verify(rabbitMQSender).sendEventToAnalytics(
+                argThat(payload -> isEvent(payload, productId, "STOCK_STATUS_CHANGED")
+                        && "ACTIVE".equals(((Map<?, ?>) payload).get("status")))
+        );
+    }
+
+    private UUID createBucketedProduct(int stock) {
+        ProductResponseModel product = productService.createProduct(
+                CreateProductRequestModel.builder()
+                        .title("Doorbuster")
+                        .price(BigDecimal.TEN)
+                        .availableQuantity(stock)
+                        .stockBuckets(BUCKETS)
+                        .sku("BUCKET-" + UUID.randomUUID())
+                        .category("test")
+                        .build()
+        );
+
+        assertEquals(stock, product.getAvailableQuantity());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getAvailableQuantity());
+        return product.getId();
+    }
+
+    private static BulkInventoryReductionRequest reduce(UUID productId, int quantity) {
+        return BulkInventoryReductionRequest.builder()
+                .items(List.of(BulkInventoryReductionRequest.Item.builder()
+                        .productId(productId)
+                        .quantity(quantity)
+                        .build()))
+                .build();
+    }
+
+    private static boolean isEvent(Object payload, UUID productId, String eventType) {
+        return payload instanceof Map<?, ?> event
+                && productId.equals(event.get("productId"))
+                && eventType.equals(event.get("eventType"));
+    }
+}